@@ -0,0 +1,345 @@
+package it.unibo.oop.lab.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+/**
+ * A minimal micro-benchmark harness, in the spirit of JMH: every configuration
+ * runs in a freshly forked JVM, is warmed up before being measured, and is
+ * measured over time-based iterations whose results are consumed so that the
+ * JIT cannot eliminate them. Besides average time and throughput, it reports the
+ * bytes allocated per operation by all threads, including the workers which
+ * die while measuring, and the no. of collections and time spent in them by the
+ * garbage collector while measuring.
+ *
+ */
+public final class Harness {
+
+    /**
+     * Argument marking the forked JVM, which measures and prints a single row.
+     */
+    public static final String FORKED = "forked";
+
+    private static final String SEPARATOR = "=";
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final long NOTIFICATION_WAIT_MILLIS = 1000;
+
+    private static volatile long sink;
+
+    private final Map<String, String> options;
+
+    /**
+     * Parses arguments in the form {@code key=value}.
+     *
+     * @param args
+     *            the command line arguments
+     */
+    public Harness(final String... args) {
+        final Map<String, String> parsed = new HashMap<>();
+        for (final String arg: args) {
+            final int index = arg.indexOf(SEPARATOR);
+            if (index < 0) {
+                parsed.put(arg, "");
+            } else {
+                parsed.put(arg.substring(0, index), arg.substring(index + 1));
+            }
+        }
+        this.options = Collections.unmodifiableMap(parsed);
+    }
+
+    /**
+     * @return true if this is the forked JVM which must measure a single configuration
+     */
+    public boolean isForked() {
+        return options.containsKey(FORKED);
+    }
+
+    /**
+     * @param key
+     *            the name of the option
+     * @param defaultValue
+     *            the value to use if the option is missing
+     * @return the comma-separated values of the option
+     */
+    public List<String> getList(final String key, final String defaultValue) {
+        return Arrays.asList(options.getOrDefault(key, defaultValue).split(","));
+    }
+
+    /**
+     * @param key
+     *            the name of the option
+     * @param defaultValue
+     *            the value to use if the option is missing
+     * @return the comma-separated values of the option, as integers
+     */
+    public List<Integer> getInts(final String key, final String defaultValue) {
+        return getList(key, defaultValue).stream()
+                .map(s -> Integer.parseInt(s.replace("_", "")))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param key
+     *            the name of the option
+     * @param defaultValue
+     *            the value to use if the option is missing
+     * @return the value of the option, as an integer
+     */
+    public int getInt(final String key, final int defaultValue) {
+        return options.containsKey(key) ? Integer.parseInt(options.get(key)) : defaultValue;
+    }
+
+    /**
+     * @param key
+     *            the name of the option
+     * @return the value of the option, which must be present
+     */
+    public String get(final String key) {
+        final String value = options.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing option " + key);
+        }
+        return value;
+    }
+
+    /**
+     * @param columns
+     *            the names of the configuration parameters
+     * @return the header of the table of results
+     */
+    public static String header(final String... columns) {
+        return String.join("\t", columns) + "\tms/op\tops/s\theap B/op\tgc count\tgc ms";
+    }
+
+    /**
+     * Runs a single configuration in a new JVM, with the same classpath and JVM
+     * arguments of the current one, printing its results.
+     *
+     * @param main
+     *            the benchmark class, whose main must handle {@link #FORKED}
+     * @param configuration
+     *            the options of the configuration, in the form {@code key=value}
+     * @throws IOException
+     *             if the JVM cannot be started
+     * @throws InterruptedException
+     *             if interrupted while waiting for the JVM
+     */
+    public void fork(final Class<?> main, final String... configuration) throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(main.getName());
+        command.add(FORKED);
+        options.entrySet().stream()
+                .filter(e -> !e.getKey().equals(FORKED))
+                .map(e -> e.getKey() + SEPARATOR + e.getValue())
+                .forEach(command::add);
+        command.addAll(Arrays.asList(configuration));
+        final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            reader.lines().forEach(System.out::println);
+        }
+        if (process.waitFor() != 0) {
+            System.out.println("Forked JVM failed with exit code " + process.exitValue());
+        }
+    }
+
+    /**
+     * Measures an operation, printing a row of results. Anything printed by the
+     * operation itself is discarded while measuring.
+     *
+     * @param operation
+     *            the operation to measure, whose result is consumed
+     * @param configuration
+     *            the values of the configuration parameters
+     */
+    public void measure(final LongSupplier operation, final Object... configuration) {
+        final int warmups = getInt("warmups", 2);
+        final int iterations = getInt("iterations", 3);
+        final long iterationNanos = TimeUnit.MILLISECONDS.toNanos(getInt("millis", 500));
+        final PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8));
+        try {
+            for (int i = 0; i < warmups; i++) {
+                iteration(operation, iterationNanos);
+            }
+            final HeapAllocation allocation = new HeapAllocation();
+            System.gc();
+            final long collectionsBefore = collections();
+            final long collectionMillisBefore = collectionMillis();
+            allocation.start(collectionsBefore);
+            final long start = System.nanoTime();
+            long ops = 0;
+            for (int i = 0; i < iterations; i++) {
+                ops += iteration(operation, iterationNanos);
+            }
+            final double elapsed = System.nanoTime() - start;
+            final long collections = collections() - collectionsBefore;
+            final long allocated = allocation.stop(collectionsBefore + collections);
+            final long collectionMillis = collectionMillis() - collectionMillisBefore;
+            out.println(Arrays.stream(configuration).map(String::valueOf).collect(Collectors.joining("\t"))
+                    + String.format(Locale.ROOT, "\t%.4f\t%.1f\t%s\t%d\t%d",
+                            elapsed / ops / NANOS_PER_MILLI,
+                            ops * NANOS_PER_SECOND / elapsed,
+                            allocated < 0 ? "n/a" : String.valueOf(allocated / ops),
+                            collections, collectionMillis));
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private static long iteration(final LongSupplier operation, final long iterationNanos) {
+        final long end = System.nanoTime() + iterationNanos;
+        long ops = 0;
+        do {
+            sink += operation.getAsLong();
+            ops++;
+        } while (System.nanoTime() < end);
+        return ops;
+    }
+
+    /*
+     * Collectors report -1 when they cannot tell, which is not counted
+     */
+    private static long collections() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .filter(count -> count > 0)
+                .sum();
+    }
+
+    private static long collectionMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(millis -> millis > 0)
+                .sum();
+    }
+
+    /*
+     * Bytes allocated on the heap by every thread: per-thread counters would
+     * miss the workers which die before being read, so the allocation is
+     * instead measured as the growth of the heap plus whatever the collections
+     * freed meanwhile. The heap grows by whole thread-local allocation buffers,
+     * so the unused tail of the buffer of every thread which dies is counted as
+     * well: that is the heap actually consumed by starting threads per sum.
+     */
+    private static final class HeapAllocation implements NotificationListener {
+        private final Set<String> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .map(MemoryPoolMXBean::getName)
+                .collect(Collectors.toSet());
+        private final long collectionsBefore = collections();
+        private final AtomicLong freed = new AtomicLong();
+        private final AtomicLong notified = new AtomicLong();
+        private long freedBefore;
+        private long usedBefore;
+
+        HeapAllocation() {
+            for (final GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans()) {
+                ((NotificationEmitter) gc).addNotificationListener(this, null, null);
+            }
+        }
+
+        /**
+         * @param collections
+         *            the no. of collections so far, whose notifications are
+         *            waited for before starting
+         */
+        void start(final long collections) {
+            awaitNotifications(collections);
+            freedBefore = freed.get();
+            usedBefore = heapUsed();
+        }
+
+        /**
+         * @param collections
+         *            the no. of collections so far, whose notifications are
+         *            waited for before stopping
+         * @return the bytes allocated since {@link #start(long)}, or -1 if
+         *         some collection has not been notified
+         */
+        long stop(final long collections) {
+            final long used = heapUsed();
+            final boolean complete = awaitNotifications(collections);
+            for (final GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans()) {
+                try {
+                    ((NotificationEmitter) gc).removeNotificationListener(this);
+                } catch (ListenerNotFoundException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return complete ? used - usedBefore + freed.get() - freedBefore : -1;
+        }
+
+        /*
+         * Notifications are delivered by another thread, so they may lag
+         * behind the collections for a while
+         */
+        private boolean awaitNotifications(final long collections) {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(NOTIFICATION_WAIT_MILLIS);
+            while (notified.get() < collections - collectionsBefore && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            return notified.get() >= collections - collectionsBefore;
+        }
+
+        @Override
+        public void handleNotification(final Notification notification, final Object handback) {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                final GcInfo info = GarbageCollectionNotificationInfo
+                        .from((CompositeData) notification.getUserData()).getGcInfo();
+                freed.addAndGet(heapUsed(info.getMemoryUsageBeforeGc()) - heapUsed(info.getMemoryUsageAfterGc()));
+                notified.incrementAndGet();
+            }
+        }
+
+        private long heapUsed() {
+            return ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> heapPools.contains(pool.getName()))
+                    .mapToLong(pool -> pool.getUsage().getUsed())
+                    .sum();
+        }
+
+        private long heapUsed(final Map<String, MemoryUsage> usage) {
+            return usage.entrySet().stream()
+                    .filter(e -> heapPools.contains(e.getKey()))
+                    .mapToLong(e -> e.getValue().getUsed())
+                    .sum();
+        }
+    }
+}
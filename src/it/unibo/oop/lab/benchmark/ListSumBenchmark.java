@@ -0,0 +1,106 @@
+package it.unibo.oop.lab.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+
+import it.unibo.oop.lab.workers01.ExecutorListSum;
+import it.unibo.oop.lab.workers01.ForkJoinListSum;
+import it.unibo.oop.lab.workers01.MultiThreadedListSumClassic;
+import it.unibo.oop.lab.workers01.MultiThreadedListSumWithStreams;
+import it.unibo.oop.lab.workers01.SumList;
+
+/**
+ * Benchmarks every {@link SumList} implementation, for every combination of
+ * list size, list type and no. of threads. Options, all optional, are given as
+ * {@code key=value} arguments: {@code impls}, {@code types}, {@code sizes} and
+ * {@code threads} take comma-separated values, while {@code warmups},
+ * {@code iterations} and {@code millis} tune the measurement.
+ *
+ */
+public final class ListSumBenchmark {
+
+    private ListSumBenchmark() {
+    }
+
+    /**
+     * @param args
+     *            the options of the benchmark
+     * @throws IOException
+     *             if a forked JVM cannot be started
+     * @throws InterruptedException
+     *             if interrupted while waiting for a forked JVM
+     */
+    public static void main(final String... args) throws IOException, InterruptedException {
+        final Harness harness = new Harness(args);
+        if (harness.isForked()) {
+            run(harness, harness.get("impl"), harness.get("type"),
+                    Integer.parseInt(harness.get("size")), Integer.parseInt(harness.get("nthread")));
+            return;
+        }
+        System.out.println(Harness.header("impl", "type", "size", "threads"));
+        for (final String impl: harness.getList("impls", "classic,streams,forkjoin,executor")) {
+            for (final String type: harness.getList("types", "array,linked,unmodifiable")) {
+                for (final int size: harness.getInts("sizes", "1_000,100_000,10_000_000")) {
+                    for (final int threads: harness.getInts("threads", "1,2,4,8")) {
+                        harness.fork(ListSumBenchmark.class, "impl=" + impl, "type=" + type,
+                                "size=" + size, "nthread=" + threads);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void run(final Harness harness, final String impl, final String type,
+            final int size, final int threads) {
+        final List<Integer> list = list(type, size);
+        switch (impl) {
+        case "classic":
+            harness.measure(() -> new MultiThreadedListSumClassic(threads).sum(list), impl, type, size, threads);
+            break;
+        case "streams":
+            harness.measure(() -> new MultiThreadedListSumWithStreams(threads).sum(list), impl, type, size, threads);
+            break;
+        case "forkjoin":
+            final ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                final SumList forkJoin = new ForkJoinListSum(pool, ForkJoinListSum.DEFAULT_THRESHOLD);
+                harness.measure(() -> forkJoin.sum(list), impl, type, size, threads);
+            } finally {
+                pool.shutdown();
+            }
+            break;
+        case "executor":
+            try (ExecutorListSum executor = new ExecutorListSum(threads)) {
+                harness.measure(() -> executor.sum(list), impl, type, size, threads);
+            }
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown implementation " + impl);
+        }
+    }
+
+    private static List<Integer> list(final String type, final int size) {
+        final IntFunction<List<Integer>> factory;
+        switch (type) {
+        case "array":
+        case "unmodifiable":
+            factory = ArrayList::new;
+            break;
+        case "linked":
+            factory = n -> new LinkedList<>();
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown list type " + type);
+        }
+        final List<Integer> list = factory.apply(size);
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        return "unmodifiable".equals(type) ? Collections.unmodifiableList(list) : list;
+    }
+}
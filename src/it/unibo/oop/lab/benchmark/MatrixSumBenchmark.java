@@ -0,0 +1,170 @@
+package it.unibo.oop.lab.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import it.unibo.oop.lab.workers.AutoTuner;
+import it.unibo.oop.lab.workers02.AutoTunedSumMatrix;
+import it.unibo.oop.lab.workers02.CsrMatrix;
+import it.unibo.oop.lab.workers02.ForkJoinSumMatrix;
+import it.unibo.oop.lab.workers02.MultiThreadedSumMatrix;
+import it.unibo.oop.lab.workers02.SumMatrix;
+
+/**
+ * Benchmarks the {@link SumMatrix} implementations, for every combination of
+ * matrix shape, matrix size and no. of threads. Options, all optional, are
+ * given as {@code key=value} arguments: {@code impls}, {@code shapes},
+ * {@code sizes}, {@code densities} and {@code threads} take comma-separated
+ * values, while {@code warmups}, {@code iterations} and {@code millis} tune
+ * the measurement.
+ *
+ * Shapes are {@code square}, {@code tall} (4 columns), {@code wide} (4 rows)
+ * and {@code jagged} (every 8th row holding most of the elements). Sizes are
+ * given either as no. of elements or as the cache level the matrix fits in:
+ * {@code l1}, {@code l2} and {@code l3} fill half of a typical 32 KiB, 512 KiB
+ * and 16 MiB cache, while {@code dram} takes 128 MiB.
+ *
+ * The {@code csr} implementation sums a {@link CsrMatrix} holding the given
+ * percentages of non-zero elements, scattered at random; the dense ones
+ * always sum every element.
+ *
+ */
+public final class MatrixSumBenchmark {
+
+    private static final int NARROW = 4;
+    private static final int JAGGED_PERIOD = 8;
+    private static final int JAGGED_LONG_WEIGHT = 57;
+    private static final int DENSE = 100;
+
+    private MatrixSumBenchmark() {
+    }
+
+    /**
+     * @param args
+     *            the options of the benchmark
+     * @throws IOException
+     *             if a forked JVM cannot be started
+     * @throws InterruptedException
+     *             if interrupted while waiting for a forked JVM
+     */
+    public static void main(final String... args) throws IOException, InterruptedException {
+        final Harness harness = new Harness(args);
+        if (harness.isForked()) {
+            run(harness, harness.get("impl"), harness.get("shape"), harness.get("size"),
+                    Integer.parseInt(harness.get("density")), Integer.parseInt(harness.get("nthread")));
+            return;
+        }
+        System.out.println(Harness.header("impl", "shape", "size", "density %", "threads"));
+        for (final String impl: harness.getList("impls", "rows,tiles,forkjoin,autotuned,csr")) {
+            final List<Integer> densities = "csr".equals(impl)
+                    ? harness.getInts("densities", "1,10,50")
+                    : List.of(DENSE);
+            for (final String shape: harness.getList("shapes", "square,tall,wide,jagged")) {
+                for (final String size: harness.getList("sizes", "l1,l2,l3,dram")) {
+                    for (final int density: densities) {
+                        for (final int threads: harness.getInts("threads", "1,2,4,8")) {
+                            harness.fork(MatrixSumBenchmark.class, "impl=" + impl, "shape=" + shape,
+                                    "size=" + size, "density=" + density, "nthread=" + threads);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void run(final Harness harness, final String impl, final String shape,
+            final String size, final int density, final int threads) {
+        final double[][] matrix = matrix(shape, elements(size), density);
+        final Object[] configuration = { impl, shape, size, density, threads };
+        switch (impl) {
+        case "rows":
+            measure(harness, new MultiThreadedSumMatrix(threads), matrix, configuration);
+            break;
+        case "tiles":
+            measure(harness, new MultiThreadedSumMatrix(threads, MultiThreadedSumMatrix.L1_TILE),
+                    matrix, configuration);
+            break;
+        case "forkjoin":
+            final ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                measure(harness, new ForkJoinSumMatrix(pool, ForkJoinSumMatrix.DEFAULT_THRESHOLD),
+                        matrix, configuration);
+            } finally {
+                pool.shutdown();
+            }
+            break;
+        case "autotuned":
+            measure(harness, new AutoTunedSumMatrix(new AutoTuner(threads)), matrix, configuration);
+            break;
+        case "csr":
+            final CsrMatrix sparse = CsrMatrix.fromDense(matrix);
+            final SumMatrix summer = new MultiThreadedSumMatrix(threads);
+            harness.measure(() -> Double.doubleToRawLongBits(summer.sum(sparse)), configuration);
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown implementation " + impl);
+        }
+    }
+
+    private static void measure(final Harness harness, final SumMatrix summer, final double[][] matrix,
+            final Object... configuration) {
+        harness.measure(() -> Double.doubleToRawLongBits(summer.sum(matrix)), configuration);
+    }
+
+    private static int elements(final String size) {
+        switch (size.toLowerCase(Locale.ROOT)) {
+        case "l1":
+            return 16 * 1024 / Double.BYTES;
+        case "l2":
+            return 256 * 1024 / Double.BYTES;
+        case "l3":
+            return 8 * 1024 * 1024 / Double.BYTES;
+        case "dram":
+            return 128 * 1024 * 1024 / Double.BYTES;
+        default:
+            return Integer.parseInt(size.replace("_", ""));
+        }
+    }
+
+    private static double[][] matrix(final String shape, final int elements, final int density) {
+        final double[][] matrix;
+        switch (shape) {
+        case "square":
+            final int side = (int) Math.sqrt(elements);
+            matrix = new double[side][side];
+            break;
+        case "tall":
+            matrix = new double[elements / NARROW][NARROW];
+            break;
+        case "wide":
+            matrix = new double[NARROW][elements / NARROW];
+            break;
+        case "jagged":
+            /*
+             * Long rows weigh JAGGED_LONG_WEIGHT times the short ones, and every
+             * row whose index is a multiple of JAGGED_PERIOD is long
+             */
+            final int rows = (int) Math.sqrt(elements);
+            final int longRows = (rows + JAGGED_PERIOD - 1) / JAGGED_PERIOD;
+            final long weights = (long) longRows * JAGGED_LONG_WEIGHT + rows - longRows;
+            final int unit = (int) Math.max(1, elements / Math.max(1, weights));
+            matrix = new double[rows][];
+            for (int r = 0; r < rows; r++) {
+                matrix[r] = new double[r % JAGGED_PERIOD == 0 ? unit * JAGGED_LONG_WEIGHT : unit];
+            }
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown matrix shape " + shape);
+        }
+        final Random random = new Random(elements);
+        for (final double[] row : matrix) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = density >= DENSE || random.nextInt(DENSE) < density ? i : 0;
+            }
+        }
+        return matrix;
+    }
+}
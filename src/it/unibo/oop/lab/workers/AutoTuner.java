@@ -0,0 +1,206 @@
+package it.unibo.oop.lab.workers;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Picks the no. of threads and the chunk size of a parallel computation from
+ * the size of its input and the timings of earlier computations.
+ *
+ * Inputs are grouped by size, in power-of-two buckets. For every bucket the
+ * tuner tries each candidate no. of threads (1, 2, 4, ... up to the available
+ * processors) once, then keeps using the one with the best time per position,
+ * trying the others again every {@value #REEXPLORE} computations in case the
+ * host has changed. Since a single thread is one of the candidates, inputs
+ * below the measured break-even size end up being processed sequentially.
+ * Candidates giving a thread less than {@value #MIN_PER_THREAD} positions are
+ * never tried.
+ *
+ * Instances are thread-safe, and can be shared among several summers.
+ *
+ */
+public final class AutoTuner {
+
+    /**
+     * Min no. of positions worth giving to a thread.
+     */
+    public static final int MIN_PER_THREAD = 1 << 12;
+
+    /**
+     * No. of computations in a bucket between two retries of a candidate.
+     */
+    public static final int REEXPLORE = 32;
+
+    /*
+     * Chunks per thread of dynamic partitions, so that faster threads can
+     * take over some of the work of slower ones
+     */
+    private static final int CHUNKS_PER_THREAD = 8;
+    /*
+     * Weight of a new timing in the average time of a candidate
+     */
+    private static final double WEIGHT = 0.25;
+    private static final int BUCKETS = Long.SIZE;
+
+    private final int[] candidates;
+    private final double[][] nanosPerPosition;
+    private final int[] calls;
+
+    /**
+     * Builds a tuner using at most as many threads as the available processors.
+     */
+    public AutoTuner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param maxThreads
+     *            the max no. of threads
+     */
+    public AutoTuner(final int maxThreads) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("The no. of threads must be positive, got " + maxThreads);
+        }
+        final int powers = Integer.SIZE - Integer.numberOfLeadingZeros(maxThreads);
+        this.candidates = new int[powers + (Integer.bitCount(maxThreads) == 1 ? 0 : 1)];
+        for (int i = 0; i < powers; i++) {
+            this.candidates[i] = 1 << i;
+        }
+        this.candidates[this.candidates.length - 1] = maxThreads;
+        this.nanosPerPosition = new double[BUCKETS][this.candidates.length];
+        for (final double[] bucket : this.nanosPerPosition) {
+            Arrays.fill(bucket, Double.NaN);
+        }
+        this.calls = new int[BUCKETS];
+    }
+
+    /**
+     * The threads and chunk size picked for a computation.
+     */
+    public static final class Plan {
+
+        private final long size;
+        private final int bucket;
+        private final int candidate;
+        private final int threads;
+        private final int chunk;
+
+        private Plan(final long size, final int bucket, final int candidate, final int threads, final int chunk) {
+            this.size = size;
+            this.bucket = bucket;
+            this.candidate = candidate;
+            this.threads = threads;
+            this.chunk = chunk;
+        }
+
+        /**
+         * @return the no. of threads to use
+         */
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * @return the no. of positions a thread should claim at once, when the
+         *         input is split dynamically
+         */
+        public int getChunk() {
+            return chunk;
+        }
+
+        @Override
+        public String toString() {
+            return "Plan [size=" + size + ", threads=" + threads + ", chunk=" + chunk + "]";
+        }
+    }
+
+    /**
+     * @param size
+     *            the no. of positions of the input
+     * @return the threads and chunk size to use
+     */
+    public synchronized Plan plan(final long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Invalid size: " + size);
+        }
+        final int bucket = bucketOf(size);
+        final int usable = usableCandidates(size);
+        final double[] nanos = nanosPerPosition[bucket];
+        int candidate = -1;
+        for (int i = 0; i < usable && candidate < 0; i++) {
+            if (Double.isNaN(nanos[i])) {
+                candidate = i;
+            }
+        }
+        if (candidate < 0) {
+            calls[bucket]++;
+            candidate = calls[bucket] % REEXPLORE == 0 ? calls[bucket] / REEXPLORE % usable : best(nanos, usable);
+        }
+        final int threads = candidates[candidate];
+        final long chunk = threads == 1 ? size : Math.max(MIN_PER_THREAD / CHUNKS_PER_THREAD,
+                size / ((long) threads * CHUNKS_PER_THREAD));
+        return new Plan(size, bucket, candidate, threads, (int) Math.min(Integer.MAX_VALUE, Math.max(1, chunk)));
+    }
+
+    /**
+     * Records how long a computation took.
+     *
+     * @param plan
+     *            the plan followed by the computation
+     * @param nanos
+     *            the duration of the computation
+     */
+    public synchronized void record(final Plan plan, final long nanos) {
+        final double perPosition = (double) nanos / Math.max(1, plan.size);
+        final double[] bucket = nanosPerPosition[plan.bucket];
+        bucket[plan.candidate] = Double.isNaN(bucket[plan.candidate])
+                ? perPosition
+                : (1 - WEIGHT) * bucket[plan.candidate] + WEIGHT * perPosition;
+    }
+
+    /**
+     * @return the smallest size for which more than one thread has proved
+     *         faster than a single one so far, or {@link Long#MAX_VALUE} if
+     *         none has
+     */
+    public synchronized long getBreakEven() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            final long size = bucket == 0 ? 0 : 1L << (bucket - 1);
+            final int usable = usableCandidates(size == 0 ? 0 : (size << 1) - 1);
+            final double[] nanos = nanosPerPosition[bucket];
+            if (usable > 1 && !Double.isNaN(nanos[0]) && candidates[best(nanos, usable)] > 1) {
+                return size;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /*
+     * Bucket 0 holds empty inputs, bucket i the sizes in [2^(i-1), 2^i)
+     */
+    private static int bucketOf(final long size) {
+        return Long.SIZE - Long.numberOfLeadingZeros(size);
+    }
+
+    private int usableCandidates(final long size) {
+        int usable = 1;
+        while (usable < candidates.length && size / candidates[usable] >= MIN_PER_THREAD) {
+            usable++;
+        }
+        return usable;
+    }
+
+    /*
+     * The candidate with the best sampled time, NaN being never the best
+     */
+    private static int best(final double[] nanos, final int usable) {
+        int best = 0;
+        for (int i = 1; i < usable; i++) {
+            if (!Double.isNaN(nanos[i]) && (Double.isNaN(nanos[best]) || nanos[i] < nanos[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,27 @@
+package it.unibo.oop.lab.workers;
+
+/**
+ *
+ * A flag shared between the caller of a computation and its workers, which
+ * check it regularly and stop as soon as they see it raised.
+ *
+ */
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    /**
+     * Asks the workers to stop. Cancelling twice has no further effect.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * @return true if the computation has been cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+}
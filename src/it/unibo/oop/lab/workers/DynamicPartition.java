@@ -0,0 +1,47 @@
+package it.unibo.oop.lab.workers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A partition where workers claim fixed-size chunks from a shared cursor until
+ * the input is over, so faster workers end up processing more chunks.
+ *
+ */
+final class DynamicPartition implements Partition {
+
+    private final int length;
+    private final int chunk;
+    private final int workers;
+    /*
+     * Every worker moves the cursor one chunk past the end before giving up, so
+     * it is kept as a long to never wrap around on inputs close to the max int
+     */
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * @param length
+     *            the length of the input
+     * @param nparts
+     *            the max no. of workers
+     * @param chunk
+     *            the no. of positions claimed at once
+     */
+    DynamicPartition(final int length, final int nparts, final int chunk) {
+        this.length = length;
+        this.chunk = chunk;
+        this.workers = (int) Math.min(nparts, ((long) length + chunk - 1) / chunk);
+    }
+
+    @Override
+    public int getWorkers() {
+        return workers;
+    }
+
+    @Override
+    public void forEachRange(final int worker, final RangeConsumer action) {
+        for (long from = cursor.getAndAdd(chunk); from < length; from = cursor.getAndAdd(chunk)) {
+            action.accept((int) from, (int) Math.min(length, from + chunk));
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package it.unibo.oop.lab.workers;
+
+/**
+ * A partition giving a single, precomputed range to every worker.
+ *
+ */
+final class FixedPartition implements Partition {
+
+    private final int[] bounds;
+
+    /**
+     * @param bounds
+     *            the first position of every worker, followed by the length of
+     *            the input
+     */
+    FixedPartition(final int... bounds) {
+        this.bounds = bounds.clone();
+    }
+
+    @Override
+    public int getWorkers() {
+        return bounds.length - 1;
+    }
+
+    @Override
+    public void forEachRange(final int worker, final RangeConsumer action) {
+        if (bounds[worker] < bounds[worker + 1]) {
+            action.accept(bounds[worker], bounds[worker + 1]);
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package it.unibo.oop.lab.workers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.function.Consumer;
+
+/**
+ *
+ * The elements of a file split among workers by contiguous ranges, with
+ * {@link Partitioner#balanced()}. Every worker memory-maps its own range and
+ * reads it in place, without loading it on the heap. A single mapping cannot
+ * exceed 2 GB, so larger ranges are mapped one segment at a time.
+ *
+ */
+public final class MappedRanges {
+
+    /**
+     * Default max no. of bytes mapped at once.
+     */
+    public static final long MAX_SEGMENT = 1L << 30;
+
+    /*
+     * Elements are never larger than this, so segments made of a multiple of
+     * it never split an element
+     */
+    private static final int MAX_ELEMENT_BYTES = Long.BYTES;
+
+    private final FileChannel channel;
+    private final long offset;
+    private final int elementBytes;
+    private final long length;
+    private final long segmentSize;
+    private final long block;
+    private final Partition partition;
+
+    /**
+     * @param channel
+     *            the file to read, which must stay open while in use
+     * @param offset
+     *            the position of the first element, in bytes
+     * @param elementBytes
+     *            the size of every element, in bytes
+     * @param length
+     *            the no. of elements
+     * @param nparts
+     *            the max no. of workers
+     * @param segmentSize
+     *            the max no. of bytes mapped at once, as checked by
+     *            {@link #checkSegmentSize(long)}
+     */
+    public MappedRanges(final FileChannel channel, final long offset, final int elementBytes, final long length,
+            final int nparts, final long segmentSize) {
+        if (elementBytes <= 0 || MAX_ELEMENT_BYTES % elementBytes != 0) {
+            throw new IllegalArgumentException("Invalid element size: " + elementBytes);
+        }
+        this.channel = channel;
+        this.offset = offset;
+        this.elementBytes = elementBytes;
+        this.length = length;
+        this.segmentSize = checkSegmentSize(segmentSize);
+        /*
+         * Partitions count positions as ints, so longer inputs are split in
+         * blocks of elements instead
+         */
+        this.block = Math.max(1, (length + Integer.MAX_VALUE - 1) / Integer.MAX_VALUE);
+        this.partition = Partitioner.balanced().split((int) ((length + block - 1) / block), nparts);
+    }
+
+    /**
+     * @param segmentSize
+     *            the max no. of bytes mapped at once
+     * @return the same size rounded down to a multiple of 8 bytes, so that
+     *         elements never straddle two segments
+     * @throws IllegalArgumentException
+     *             if the size is too small to hold an element, or too large
+     *             to be mapped
+     */
+    public static long checkSegmentSize(final long segmentSize) {
+        if (segmentSize < MAX_ELEMENT_BYTES || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+        }
+        return segmentSize / MAX_ELEMENT_BYTES * MAX_ELEMENT_BYTES;
+    }
+
+    /**
+     * @return the no. of workers which should be started
+     */
+    public int getWorkers() {
+        return partition.getWorkers();
+    }
+
+    /**
+     * Maps the range of a worker one segment at a time. This must be called
+     * exactly once per worker.
+     *
+     * @param worker
+     *            the index of the worker, between 0 and {@link #getWorkers()}
+     * @param action
+     *            the action to perform on each little-endian segment, one
+     *            after the other
+     * @throws IOException
+     *             if a segment could not be mapped
+     */
+    public void forEachSegment(final int worker, final Consumer<ByteBuffer> action) throws IOException {
+        try {
+            partition.forEachRange(worker, (from, to) -> {
+                final long start = offset + from * block * elementBytes;
+                final long end = offset + Math.min(length, to * block) * elementBytes;
+                for (long pos = start; pos < end; pos += segmentSize) {
+                    action.accept(map(pos, Math.min(segmentSize, end - pos)));
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ByteBuffer map(final long position, final long size) {
+        try {
+            return channel.map(MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package it.unibo.oop.lab.workers;
+
+import java.util.Objects;
+
+/**
+ *
+ * The result of a computation which may have been stopped early, together with
+ * how much of the input it covers. Positions are the units in which the input
+ * is split among workers, e.g. elements of a list or rows of a matrix.
+ *
+ * @param <T>
+ *            the type of the result
+ */
+public final class PartialResult<T extends Number> {
+
+    private final T value;
+    private final long covered;
+    private final long total;
+
+    /**
+     * Builds a new {@link PartialResult}.
+     *
+     * @param value
+     *            the result computed over the covered positions
+     * @param covered
+     *            the no. of positions of the input taken into account
+     * @param total
+     *            the no. of positions of the whole input
+     */
+    public PartialResult(final T value, final long covered, final long total) {
+        if (covered < 0 || covered > total) {
+            throw new IllegalArgumentException("Covered " + covered + " positions out of " + total);
+        }
+        this.value = Objects.requireNonNull(value);
+        this.covered = covered;
+        this.total = total;
+    }
+
+    /**
+     * @return the result computed over the covered positions
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return the no. of positions of the input taken into account
+     */
+    public long getCovered() {
+        return covered;
+    }
+
+    /**
+     * @return the no. of positions of the whole input
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return true if the whole input has been taken into account
+     */
+    public boolean isComplete() {
+        return covered == total;
+    }
+
+    @Override
+    public String toString() {
+        return "PartialResult [value=" + value + ", covered=" + covered + "/" + total + "]";
+    }
+}
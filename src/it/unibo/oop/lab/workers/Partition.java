@@ -0,0 +1,43 @@
+package it.unibo.oop.lab.workers;
+
+/**
+ *
+ * The assignment of the positions of an input to a set of workers, as
+ * computed by a {@link Partitioner} for a single computation.
+ *
+ */
+public interface Partition {
+
+    /**
+     * An action performed on a range of positions.
+     */
+    @FunctionalInterface
+    interface RangeConsumer {
+
+        /**
+         * @param from
+         *            the first position of the range (inclusive)
+         * @param to
+         *            the last position of the range (exclusive)
+         */
+        void accept(int from, int to);
+    }
+
+    /**
+     * @return the no. of workers which should be started, never more than
+     *         requested and never more than needed
+     */
+    int getWorkers();
+
+    /**
+     * Performs an action on every range assigned to a worker, and on nothing
+     * else. This must be called exactly once per worker.
+     *
+     * @param worker
+     *            the index of the worker, between 0 and {@link #getWorkers()}
+     * @param action
+     *            the action to perform on each range, one after the other
+     */
+    void forEachRange(int worker, RangeConsumer action);
+
+}
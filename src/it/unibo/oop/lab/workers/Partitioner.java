@@ -0,0 +1,85 @@
+package it.unibo.oop.lab.workers;
+
+/**
+ *
+ * A strategy splitting the positions of an input among a set of workers.
+ *
+ */
+@FunctionalInterface
+public interface Partitioner {
+
+    /**
+     * Size of a cache line, in bytes.
+     */
+    int CACHE_LINE = 64;
+
+    /**
+     * @param length
+     *            the no. of positions of the input
+     * @param nparts
+     *            the max no. of workers
+     * @return a new partition of the input, to be used by a single computation
+     */
+    Partition split(int length, int nparts);
+
+    /**
+     * @return a partitioner giving every worker a contiguous range, whose
+     *         lengths differ at most by one
+     */
+    static Partitioner balanced() {
+        return (length, nparts) -> aligned(length, nparts, 1);
+    }
+
+    /**
+     * @param elementBytes
+     *            the size in bytes of the elements of the input
+     * @return a partitioner giving every worker a contiguous range starting on
+     *         a cache line boundary (as long as the input does), so that no two
+     *         workers ever touch the same cache line
+     */
+    static Partitioner cacheAligned(final int elementBytes) {
+        if (elementBytes <= 0) {
+            throw new IllegalArgumentException("Invalid element size: " + elementBytes);
+        }
+        final int align = Math.max(1, CACHE_LINE / elementBytes);
+        return (length, nparts) -> aligned(length, nparts, align);
+    }
+
+    /**
+     * @param chunk
+     *            the no. of positions claimed at once by a worker
+     * @return a partitioner where workers keep claiming chunks from a shared
+     *         cursor, so that no worker stays idle while others are behind
+     */
+    static Partitioner dynamic(final int chunk) {
+        if (chunk <= 0) {
+            throw new IllegalArgumentException("The chunk size must be positive, got " + chunk);
+        }
+        return (length, nparts) -> {
+            checkParts(nparts);
+            return new DynamicPartition(length, nparts, chunk);
+        };
+    }
+
+    /*
+     * Splits the input in blocks of align positions, and gives every worker the
+     * same no. of blocks, give or take one
+     */
+    private static Partition aligned(final int length, final int nparts, final int align) {
+        checkParts(nparts);
+        final int blocks = (int) (((long) length + align - 1) / align);
+        final int workers = Math.min(nparts, blocks);
+        final int[] bounds = new int[workers + 1];
+        for (int i = 1; i <= workers; i++) {
+            bounds[i] = (int) Math.min(length, (long) blocks * i / workers * align);
+        }
+        return new FixedPartition(bounds);
+    }
+
+    private static void checkParts(final int nparts) {
+        if (nparts <= 0) {
+            throw new IllegalArgumentException("The no. of workers must be positive, got " + nparts);
+        }
+    }
+
+}
@@ -0,0 +1,204 @@
+package it.unibo.oop.lab.workers;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Summation kernels for ranges of primitive arrays and buffers, meant to be
+ * run by every worker on its own range.
+ *
+ * The loops are unrolled over four independent accumulators: a plain loop
+ * adds every element to the same variable, so each addition waits for the
+ * previous one, while here four additions are always in flight. This matters
+ * most for doubles, whose additions the JIT must not reorder by itself, so a
+ * plain loop never gets unrolled nor vectorized. As a consequence, double sums
+ * may differ from a plain loop in the last bits.
+ *
+ */
+public final class SumKernels {
+
+    private static final int LANES = 4;
+
+    private SumKernels() {
+    }
+
+    /**
+     * @param array
+     *            the array to sum
+     * @param from
+     *            the first position to sum (inclusive)
+     * @param to
+     *            the last position to sum (exclusive)
+     * @return the sum of the elements in the range
+     */
+    public static long sum(final int[] array, final int from, final int to) {
+        long s0 = 0;
+        long s1 = 0;
+        long s2 = 0;
+        long s3 = 0;
+        int i = from;
+        for (; i <= to - LANES; i += LANES) {
+            s0 += array[i];
+            s1 += array[i + 1];
+            s2 += array[i + 2];
+            s3 += array[i + 3];
+        }
+        for (; i < to; i++) {
+            s0 += array[i];
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    /**
+     * @param array
+     *            the array to sum
+     * @param from
+     *            the first position to sum (inclusive)
+     * @param to
+     *            the last position to sum (exclusive)
+     * @return the sum of the elements in the range
+     */
+    public static long sum(final long[] array, final int from, final int to) {
+        long s0 = 0;
+        long s1 = 0;
+        long s2 = 0;
+        long s3 = 0;
+        int i = from;
+        for (; i <= to - LANES; i += LANES) {
+            s0 += array[i];
+            s1 += array[i + 1];
+            s2 += array[i + 2];
+            s3 += array[i + 3];
+        }
+        for (; i < to; i++) {
+            s0 += array[i];
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    /**
+     * @param array
+     *            the array to sum
+     * @param from
+     *            the first position to sum (inclusive)
+     * @param to
+     *            the last position to sum (exclusive)
+     * @return the sum of the elements in the range
+     */
+    public static double sum(final double[] array, final int from, final int to) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = from;
+        for (; i <= to - LANES; i += LANES) {
+            s0 += array[i];
+            s1 += array[i + 1];
+            s2 += array[i + 2];
+            s3 += array[i + 3];
+        }
+        for (; i < to; i++) {
+            s0 += array[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * @param array
+     *            the array to sum
+     * @return the sum of its elements
+     */
+    public static double sum(final double[] array) {
+        return sum(array, 0, array.length);
+    }
+
+    /**
+     * Sums a buffer in place, through absolute reads which leave its position
+     * untouched: a memory-mapped buffer is never copied on the heap.
+     *
+     * @param buffer
+     *            the buffer to sum
+     * @param from
+     *            the first index to sum (inclusive)
+     * @param to
+     *            the last index to sum (exclusive)
+     * @return the sum of the elements in the range
+     */
+    public static double sum(final DoubleBuffer buffer, final int from, final int to) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = from;
+        for (; i <= to - LANES; i += LANES) {
+            s0 += buffer.get(i);
+            s1 += buffer.get(i + 1);
+            s2 += buffer.get(i + 2);
+            s3 += buffer.get(i + 3);
+        }
+        for (; i < to; i++) {
+            s0 += buffer.get(i);
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Sums a buffer in place, as {@link #sum(DoubleBuffer, int, int)}.
+     *
+     * @param buffer
+     *            the buffer to sum
+     * @param from
+     *            the first index to sum (inclusive)
+     * @param to
+     *            the last index to sum (exclusive)
+     * @return the sum of the elements in the range
+     */
+    public static long sum(final IntBuffer buffer, final int from, final int to) {
+        long s0 = 0;
+        long s1 = 0;
+        long s2 = 0;
+        long s3 = 0;
+        int i = from;
+        for (; i <= to - LANES; i += LANES) {
+            s0 += buffer.get(i);
+            s1 += buffer.get(i + 1);
+            s2 += buffer.get(i + 2);
+            s3 += buffer.get(i + 3);
+        }
+        for (; i < to; i++) {
+            s0 += buffer.get(i);
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    /**
+     * Sums a buffer in place, as {@link #sum(DoubleBuffer, int, int)}.
+     *
+     * @param buffer
+     *            the buffer to sum
+     * @param from
+     *            the first index to sum (inclusive)
+     * @param to
+     *            the last index to sum (exclusive)
+     * @return the sum of the elements in the range
+     */
+    public static long sum(final LongBuffer buffer, final int from, final int to) {
+        long s0 = 0;
+        long s1 = 0;
+        long s2 = 0;
+        long s3 = 0;
+        int i = from;
+        for (; i <= to - LANES; i += LANES) {
+            s0 += buffer.get(i);
+            s1 += buffer.get(i + 1);
+            s2 += buffer.get(i + 2);
+            s3 += buffer.get(i + 3);
+        }
+        for (; i < to; i++) {
+            s0 += buffer.get(i);
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+}
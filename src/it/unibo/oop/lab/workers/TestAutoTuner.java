@@ -0,0 +1,72 @@
+package it.unibo.oop.lab.workers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ *
+ * Tests for the choices of {@link AutoTuner}.
+ *
+ */
+public class TestAutoTuner {
+
+    private static final int THREADS = 8;
+    private static final long SMALL = 10_000;
+    private static final long LARGE = 10_000_000;
+
+    /**
+     * Every candidate is tried once, then the fastest one is kept.
+     */
+    @Test
+    public void testExploreThenExploit() {
+        final AutoTuner tuner = new AutoTuner(THREADS);
+        /*
+         * Pretend that time is inversely proportional to threads on large
+         * inputs, and that threads only add overhead on small ones
+         */
+        for (final int expected: new int[] { 1, 2, 4, 8 }) {
+            final AutoTuner.Plan plan = tuner.plan(LARGE);
+            assertEquals(expected, plan.getThreads());
+            assertTrue(plan.getThreads() == 1 || plan.getChunk() * (long) plan.getThreads() < LARGE);
+            tuner.record(plan, LARGE / plan.getThreads());
+        }
+        assertTrue(tuner.getBreakEven() <= LARGE);
+        for (int i = 0; i < 2; i++) {
+            final AutoTuner.Plan plan = tuner.plan(SMALL);
+            tuner.record(plan, SMALL * plan.getThreads());
+        }
+        for (int i = 1; i < AutoTuner.REEXPLORE; i++) {
+            assertEquals(THREADS, tuner.plan(LARGE).getThreads());
+            final AutoTuner.Plan plan = tuner.plan(SMALL);
+            assertEquals(1, plan.getThreads());
+            assertEquals(SMALL, plan.getChunk());
+            tuner.record(plan, SMALL);
+        }
+        assertTrue(tuner.getBreakEven() > SMALL && tuner.getBreakEven() <= LARGE);
+    }
+
+    /**
+     * Tiny inputs never get more than one thread, nor threads beyond the max.
+     */
+    @Test
+    public void testLimits() {
+        final AutoTuner tuner = new AutoTuner(3);
+        assertEquals(Long.MAX_VALUE, tuner.getBreakEven());
+        for (int i = 0; i < 10; i++) {
+            final AutoTuner.Plan plan = tuner.plan(AutoTuner.MIN_PER_THREAD);
+            assertEquals(1, plan.getThreads());
+            tuner.record(plan, 1);
+        }
+        assertEquals(1, tuner.plan(0).getThreads());
+        int max = 0;
+        for (int i = 0; i < 10; i++) {
+            final AutoTuner.Plan plan = tuner.plan(LARGE);
+            max = Math.max(max, plan.getThreads());
+            tuner.record(plan, 1);
+        }
+        assertEquals(3, max);
+    }
+
+}
@@ -0,0 +1,93 @@
+package it.unibo.oop.lab.workers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ *
+ * Test for the partitioning strategies.
+ *
+ */
+public class TestPartitioner {
+
+    private static final int CHUNK = 7;
+
+    /**
+     * Every strategy covers every position exactly once, whatever the lengths.
+     */
+    @Test
+    public void testCoverage() {
+        for (final Partitioner partitioner: new Partitioner[] {
+            Partitioner.balanced(), Partitioner.cacheAligned(Integer.BYTES), Partitioner.dynamic(CHUNK) }) {
+            for (final int length: new int[] { 0, 1, 15, 100, 1_000 }) {
+                for (final int nparts: new int[] { 1, 2, 3, 8, 32 }) {
+                    final Partition partition = partitioner.split(length, nparts);
+                    assertTrue(partition.getWorkers() <= nparts);
+                    final List<Integer> covered = new ArrayList<>();
+                    for (int w = 0; w < partition.getWorkers(); w++) {
+                        partition.forEachRange(w, (from, to) -> {
+                            for (int i = from; i < to; i++) {
+                                covered.add(i);
+                            }
+                        });
+                    }
+                    Collections.sort(covered);
+                    assertEquals(length, covered.size());
+                    for (int i = 0; i < length; i++) {
+                        assertEquals(i, (int) covered.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Balanced ranges differ at most by one, and nobody is left without work.
+     */
+    @Test
+    public void testBalanced() {
+        final int rows = 100;
+        final int threads = 32;
+        final Partition partition = Partitioner.balanced().split(rows, threads);
+        assertEquals(threads, partition.getWorkers());
+        for (int w = 0; w < threads; w++) {
+            partition.forEachRange(w, (from, to) -> assertTrue(to - from == rows / threads
+                    || to - from == rows / threads + 1));
+        }
+    }
+
+    /**
+     * Cache-aligned ranges start on a cache line.
+     */
+    @Test
+    public void testCacheAligned() {
+        final Partition partition = Partitioner.cacheAligned(Integer.BYTES).split(1_000, 3);
+        for (int w = 0; w < partition.getWorkers(); w++) {
+            partition.forEachRange(w, (from, to) -> assertEquals(0, from * Integer.BYTES % Partitioner.CACHE_LINE));
+        }
+    }
+
+    /**
+     * Dynamic chunks never wrap around, even when the cursor runs past the max int.
+     */
+    @Test
+    public void testDynamicNearMaxInt() {
+        final int chunk = 1 << 30;
+        final Partition partition = Partitioner.dynamic(chunk).split(Integer.MAX_VALUE, 8);
+        final long[] covered = new long[1];
+        for (int w = 0; w < partition.getWorkers(); w++) {
+            partition.forEachRange(w, (from, to) -> {
+                assertTrue(from >= 0 && to > from);
+                covered[0] += to - from;
+            });
+        }
+        assertEquals(Integer.MAX_VALUE, covered[0]);
+    }
+
+}
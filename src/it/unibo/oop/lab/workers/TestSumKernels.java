@@ -0,0 +1,53 @@
+package it.unibo.oop.lab.workers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ *
+ * Test for the summation kernels.
+ *
+ */
+public class TestSumKernels {
+
+    private static final int SIZE = 1_003;
+    private static final double EXPECTED_DELTA = 1e-6;
+
+    /**
+     * Kernels agree with a plain loop on every range, including the ones
+     * shorter than the unrolling.
+     */
+    @Test
+    public void testRanges() {
+        final Random random = new Random(SIZE);
+        final int[] ints = random.ints(SIZE).toArray();
+        final long[] longs = random.longs(SIZE).toArray();
+        final double[] doubles = random.doubles(SIZE).toArray();
+        final DoubleBuffer buffer = DoubleBuffer.wrap(doubles);
+        for (final int from: new int[] { 0, 1, 2, 3, SIZE / 2 }) {
+            for (final int to: new int[] { from, from + 1, from + 3, from + 5, SIZE }) {
+                long intSum = 0;
+                long longSum = 0;
+                double doubleSum = 0;
+                for (int i = from; i < to; i++) {
+                    intSum += ints[i];
+                    longSum += longs[i];
+                    doubleSum += doubles[i];
+                }
+                assertEquals(intSum, SumKernels.sum(ints, from, to));
+                assertEquals(longSum, SumKernels.sum(longs, from, to));
+                assertEquals(intSum, SumKernels.sum(IntBuffer.wrap(ints), from, to));
+                assertEquals(longSum, SumKernels.sum(LongBuffer.wrap(longs), from, to));
+                assertEquals(doubleSum, SumKernels.sum(doubles, from, to), EXPECTED_DELTA);
+                assertEquals(doubleSum, SumKernels.sum(buffer, from, to), EXPECTED_DELTA);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package it.unibo.oop.lab.workers01;
+
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+import it.unibo.oop.lab.workers.AutoTuner;
+import it.unibo.oop.lab.workers.Partitioner;
+
+/**
+ * This is an implementation picking the no. of threads and the chunk size of
+ * every sum with an {@link AutoTuner}, from the length of the input and the
+ * timings of earlier sums. Inputs below the break-even size are summed by the
+ * calling thread; the others are split dynamically among the workers.
+ *
+ */
+public final class AutoTunedListSum implements SumList {
+
+    private final AutoTuner tuner;
+
+    /**
+     * Builds a summer with a tuner of its own.
+     */
+    public AutoTunedListSum() {
+        this(new AutoTuner());
+    }
+
+    /**
+     *
+     * @param tuner
+     *            the tuner picking threads and chunk size, possibly shared
+     */
+    public AutoTunedListSum(final AutoTuner tuner) {
+        this.tuner = Objects.requireNonNull(tuner);
+    }
+
+    @Override
+    public long sum(final List<Integer> list) {
+        return sum(list.size(), () -> RangeSum.of(list).sum(0, list.size()), summer -> summer.sum(list));
+    }
+
+    @Override
+    public long sum(final int[] array) {
+        return sum(array.length, () -> RangeSum.of(array).sum(0, array.length), summer -> summer.sum(array));
+    }
+
+    @Override
+    public long sum(final long[] array) {
+        return sum(array.length, () -> RangeSum.of(array).sum(0, array.length), summer -> summer.sum(array));
+    }
+
+    @Override
+    public long sum(final IntBuffer buffer) {
+        return sum(buffer.remaining(), () -> RangeSum.of(buffer).sum(0, buffer.remaining()),
+                summer -> summer.sum(buffer));
+    }
+
+    private long sum(final int length, final LongSupplier sequential,
+            final ToLongFunction<SumList> parallel) {
+        final AutoTuner.Plan plan = tuner.plan(length);
+        final long start = System.nanoTime();
+        final long res = plan.getThreads() == 1
+                ? sequential.getAsLong()
+                : parallel.applyAsLong(new MultiThreadedListSumWithStreams(plan.getThreads(),
+                        Partitioner.dynamic(plan.getChunk())));
+        tuner.record(plan, System.nanoTime() - start);
+        return res;
+    }
+}
@@ -0,0 +1,136 @@
+package it.unibo.oop.lab.workers01;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import it.unibo.oop.lab.workers.Partition;
+import it.unibo.oop.lab.workers.Partitioner;
+
+/**
+ * This is an implementation backed by a long-lived {@link ExecutorService}:
+ * threads are created once and reused across calls, and every call only
+ * submits its chunks as tasks and waits for their futures. The summer owns its
+ * executor, so it must be closed once it is no longer needed.
+ *
+ */
+public final class ExecutorListSum implements SumList, AutoCloseable {
+
+    private final ExecutorService executor;
+    private final int ntasks;
+    private final Partitioner partitioner;
+
+    /**
+     * Builds a summer on top of a fixed thread pool.
+     *
+     * @param nthread
+     *            no. of thread performing the sum.
+     */
+    public ExecutorListSum(final int nthread) {
+        this(Executors.newFixedThreadPool(nthread), nthread);
+    }
+
+    /**
+     *
+     * @param executor
+     *            the executor running the tasks, which is shut down by {@link #close()}
+     * @param ntasks
+     *            no. of tasks every sum is split into
+     */
+    public ExecutorListSum(final ExecutorService executor, final int ntasks) {
+        this(executor, ntasks, Partitioner.balanced());
+    }
+
+    /**
+     *
+     * @param executor
+     *            the executor running the tasks, which is shut down by {@link #close()}
+     * @param ntasks
+     *            no. of tasks every sum is split into
+     * @param partitioner
+     *            the strategy assigning positions to tasks
+     */
+    public ExecutorListSum(final ExecutorService executor, final int ntasks, final Partitioner partitioner) {
+        if (ntasks <= 0) {
+            throw new IllegalArgumentException("The no. of tasks must be positive, got " + ntasks);
+        }
+        this.executor = Objects.requireNonNull(executor);
+        this.ntasks = ntasks;
+        this.partitioner = Objects.requireNonNull(partitioner);
+    }
+
+    @Override
+    public long sum(final List<Integer> list) {
+        return sum(list.size(), RangeSum.of(list));
+    }
+
+    @Override
+    public long sum(final int[] array) {
+        return sum(array.length, RangeSum.of(array));
+    }
+
+    @Override
+    public long sum(final long[] array) {
+        return sum(array.length, RangeSum.of(array));
+    }
+
+    @Override
+    public long sum(final IntBuffer buffer) {
+        return sum(buffer.remaining(), RangeSum.of(buffer));
+    }
+
+    private long sum(final int length, final RangeSum source) {
+        final Partition partition = partitioner.split(length, ntasks);
+        if (partition.getWorkers() == 0) {
+            return 0;
+        }
+        /*
+         * Submit every task but the first one, which is run by the calling
+         * thread while the pool works on the others
+         */
+        final List<Future<Long>> futures = new ArrayList<>(partition.getWorkers());
+        try {
+            for (int i = 1; i < partition.getWorkers(); i++) {
+                final int task = i;
+                futures.add(executor.submit(() -> sum(source, partition, task)));
+            }
+        } catch (RejectedExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("The summer has been closed", e);
+        }
+        long sum = sum(source, partition, 0);
+        for (final Future<Long> f: futures) {
+            try {
+                sum += f.get();
+            } catch (InterruptedException e) {
+                futures.forEach(pending -> pending.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return sum;
+    }
+
+    private static long sum(final RangeSum source, final Partition partition, final int task) {
+        final long[] res = new long[1];
+        partition.forEachRange(task, (from, to) -> res[0] += source.sum(from, to));
+        return res[0];
+    }
+
+    /**
+     * Shuts the executor down: tasks already submitted are completed, but no
+     * further sum can be performed.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
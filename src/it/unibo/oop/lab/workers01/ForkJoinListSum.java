@@ -0,0 +1,175 @@
+package it.unibo.oop.lab.workers01;
+
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This is an implementation based on the fork/join framework: the range to sum
+ * is recursively halved until it is small enough, and idle threads of the pool
+ * steal the halves that are still waiting to be processed. As such, a slow or
+ * descheduled thread never stalls the whole computation.
+ *
+ */
+public final class ForkJoinListSum implements SumList {
+
+    /**
+     * Default size of the ranges which are no longer split.
+     */
+    public static final int DEFAULT_THRESHOLD = 10_000;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Builds a summer running on the common pool with the default threshold.
+     */
+    public ForkJoinListSum() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     *
+     * @param threshold
+     *            max no. of elements summed by a single task without splitting
+     */
+    public ForkJoinListSum(final int threshold) {
+        this(ForkJoinPool.commonPool(), threshold);
+    }
+
+    /**
+     *
+     * @param pool
+     *            the pool running the tasks, its lifecycle is up to the caller
+     * @param threshold
+     *            max no. of elements summed by a single task without splitting
+     */
+    public ForkJoinListSum(final ForkJoinPool pool, final int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("The threshold must be positive, got " + threshold);
+        }
+        this.pool = Objects.requireNonNull(pool);
+        this.threshold = threshold;
+    }
+
+    private static class Task extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient RangeSum source;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        /**
+         * Build a new task.
+         *
+         * @param source
+         *            the source of the elements to sum
+         * @param from
+         *            the first position to sum (inclusive)
+         * @param to
+         *            the last position to sum (exclusive)
+         * @param threshold
+         *            max no. of elements to sum without splitting
+         */
+        Task(final RangeSum source, final int from, final int to, final int threshold) {
+            super();
+            this.source = source;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= threshold) {
+                return source.sum(from, to);
+            }
+            final int middle = (from + to) >>> 1;
+            final Task left = new Task(source, from, middle, threshold);
+            /*
+             * Leave the left half to thieves, and keep working on the right one
+             */
+            left.fork();
+            final long right = new Task(source, middle, to, threshold).compute();
+            return right + left.join();
+        }
+
+    }
+
+    private static class SpliteratorTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Spliterator<Integer> spliterator;
+        private final int threshold;
+
+        /**
+         * Build a new task.
+         *
+         * @param spliterator
+         *            the elements to sum
+         * @param threshold
+         *            max no. of elements to sum without splitting
+         */
+        SpliteratorTask(final Spliterator<Integer> spliterator, final int threshold) {
+            super();
+            this.spliterator = spliterator;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Long compute() {
+            final Spliterator<Integer> prefix = spliterator.estimateSize() > threshold ? spliterator.trySplit() : null;
+            if (prefix == null) {
+                final long[] res = new long[1];
+                spliterator.forEachRemaining(elem -> res[0] += elem);
+                return res[0];
+            }
+            final SpliteratorTask left = new SpliteratorTask(prefix, threshold);
+            left.fork();
+            final long right = compute();
+            return right + left.join();
+        }
+
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Lists without fast positional access are split through their
+     * {@link Spliterator}, as parallel streams do, so that they are traversed
+     * in linear time rather than through a positional get. Splitting a linked
+     * list copies each split-off batch of elements into an array, so such
+     * lists are not summed in place.
+     */
+    @Override
+    public long sum(final List<Integer> list) {
+        if (!(list instanceof RandomAccess)) {
+            return pool.invoke(new SpliteratorTask(list.spliterator(), threshold));
+        }
+        return sum(list.size(), RangeSum.of(list));
+    }
+
+    @Override
+    public long sum(final int[] array) {
+        return sum(array.length, RangeSum.of(array));
+    }
+
+    @Override
+    public long sum(final long[] array) {
+        return sum(array.length, RangeSum.of(array));
+    }
+
+    @Override
+    public long sum(final IntBuffer buffer) {
+        return sum(buffer.remaining(), RangeSum.of(buffer));
+    }
+
+    private long sum(final int length, final RangeSum source) {
+        return pool.invoke(new Task(source, 0, length, threshold));
+    }
+}
@@ -0,0 +1,172 @@
+package it.unibo.oop.lab.workers01;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unibo.oop.lab.workers.MappedRanges;
+import it.unibo.oop.lab.workers.SumKernels;
+
+/**
+ * Sums binary files of little-endian integers without loading them on the
+ * heap: every worker gets a contiguous range of the file, which it memory-maps
+ * and reads in place through {@link MappedRanges}. A single mapping cannot
+ * exceed 2 GB, so larger ranges are mapped and summed one segment at a time.
+ *
+ */
+public final class MultiThreadedFileSum {
+
+    /**
+     * The format of the values stored in the file.
+     */
+    public enum Format {
+
+        /**
+         * Little-endian 32 bit integers.
+         */
+        INT32(Integer.BYTES),
+
+        /**
+         * Little-endian 64 bit integers.
+         */
+        INT64(Long.BYTES);
+
+        private final int bytes;
+
+        Format(final int bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return the no. of bytes of every value
+         */
+        public int getBytes() {
+            return bytes;
+        }
+    }
+
+    private final int nthread;
+    private final long segmentSize;
+
+    /**
+     *
+     * @param nthread
+     *            no. of thread performing the sum.
+     */
+    public MultiThreadedFileSum(final int nthread) {
+        this(nthread, MappedRanges.MAX_SEGMENT);
+    }
+
+    /**
+     *
+     * @param nthread
+     *            no. of thread performing the sum.
+     * @param segmentSize
+     *            max no. of bytes mapped at once by a worker, rounded down to a
+     *            multiple of 8 so that values never straddle two segments
+     */
+    MultiThreadedFileSum(final int nthread, final long segmentSize) {
+        this.nthread = nthread;
+        this.segmentSize = MappedRanges.checkSegmentSize(segmentSize);
+    }
+
+    private static class Worker extends Thread {
+        private final MappedRanges ranges;
+        private final int index;
+        private final Format format;
+        private long res;
+        private Throwable failure;
+
+        /**
+         * Build a new worker.
+         *
+         * @param ranges
+         *            the ranges of the file to sum
+         * @param index
+         *            the index of this worker among the ranges
+         * @param format
+         *            the format of the values
+         */
+        Worker(final MappedRanges ranges, final int index, final Format format) {
+            super();
+            this.ranges = ranges;
+            this.index = index;
+            this.format = format;
+        }
+
+        @Override
+        public void run() {
+            try {
+                ranges.forEachSegment(index, segment -> this.res += format == Format.INT32
+                        ? SumKernels.sum(segment.asIntBuffer(), 0, segment.limit() / Integer.BYTES)
+                        : SumKernels.sum(segment.asLongBuffer(), 0, segment.limit() / Long.BYTES));
+            } catch (IOException | RuntimeException | Error e) {
+                /*
+                 * Left to the caller, which would otherwise get a partial sum
+                 */
+                this.failure = e;
+            }
+        }
+
+        /**
+         * @return the sum of the values in the range of this worker
+         * @throws IOException
+         *             if the range could not be mapped
+         */
+        public long getResult() throws IOException {
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            } else if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+            return this.res;
+        }
+
+    }
+
+    /**
+     * @param file
+     *            a file containing only values of the given format
+     * @param format
+     *            the format of the values
+     * @return the sum of the values in the file
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public long sum(final Path file, final Format format) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            if (fileSize % format.getBytes() != 0) {
+                throw new IllegalArgumentException("The size of " + file + " is not a multiple of "
+                        + format.getBytes() + " bytes");
+            }
+            /*
+             * Build a list of workers, each one on a range of whole values
+             */
+            final MappedRanges ranges = new MappedRanges(channel, 0, format.getBytes(),
+                    fileSize / format.getBytes(), nthread, segmentSize);
+            final List<Worker> workers = new ArrayList<>(ranges.getWorkers());
+            for (int i = 0; i < ranges.getWorkers(); i++) {
+                workers.add(new Worker(ranges, i, format));
+            }
+            for (final Worker w: workers) {
+                w.start();
+            }
+            long sum = 0;
+            for (final Worker w: workers) {
+                try {
+                    w.join();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                sum += w.getResult();
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package it.unibo.oop.lab.workers01;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.IntUnaryOperator;
+
+import it.unibo.oop.lab.workers.Partition;
+import it.unibo.oop.lab.workers.Partitioner;
+
+/**
+ * Computes a configurable set of {@link Statistic}s over a list of integers in
+ * a single pass. As in {@link MultiThreadedListSumClassic}, every worker
+ * handles the ranges of positions assigned to it, collecting its own partial
+ * results, which are merged once every worker is done.
+ *
+ */
+public final class MultiThreadedListStatistics {
+
+    private final int nthread;
+    private final Partitioner partitioner;
+    private final Set<Statistic> statistics;
+    private final long histogramMin;
+    private final long histogramMax;
+    private final int buckets;
+
+    /**
+     *
+     * @param nthread
+     *            no. of thread performing the computation.
+     * @param statistics
+     *            the statistics to compute, which cannot include the histogram
+     */
+    public MultiThreadedListStatistics(final int nthread, final Set<Statistic> statistics) {
+        this(nthread, statistics, 0, 1, 1);
+        if (statistics.contains(Statistic.HISTOGRAM)) {
+            throw new IllegalArgumentException("The histogram requires the bounds of its buckets");
+        }
+    }
+
+    /**
+     *
+     * @param nthread
+     *            no. of thread performing the computation.
+     * @param statistics
+     *            the statistics to compute
+     * @param histogramMin
+     *            the lower bound of the first bucket (inclusive), smaller
+     *            elements are counted in the first bucket
+     * @param histogramMax
+     *            the upper bound of the last bucket (exclusive), larger
+     *            elements are counted in the last bucket
+     * @param buckets
+     *            the no. of buckets
+     */
+    public MultiThreadedListStatistics(final int nthread, final Set<Statistic> statistics,
+            final int histogramMin, final int histogramMax, final int buckets) {
+        this(nthread, Partitioner.balanced(), statistics, histogramMin, histogramMax, buckets);
+    }
+
+    /**
+     *
+     * @param nthread
+     *            no. of thread performing the computation.
+     * @param partitioner
+     *            the strategy assigning positions to workers
+     * @param statistics
+     *            the statistics to compute
+     * @param histogramMin
+     *            the lower bound of the first bucket (inclusive), smaller
+     *            elements are counted in the first bucket
+     * @param histogramMax
+     *            the upper bound of the last bucket (exclusive), larger
+     *            elements are counted in the last bucket
+     * @param buckets
+     *            the no. of buckets
+     */
+    public MultiThreadedListStatistics(final int nthread, final Partitioner partitioner,
+            final Set<Statistic> statistics, final int histogramMin, final int histogramMax, final int buckets) {
+        if (histogramMin >= histogramMax || buckets <= 0) {
+            throw new IllegalArgumentException("Invalid histogram: [" + histogramMin + ", " + histogramMax
+                    + ") in " + buckets + " buckets");
+        }
+        this.nthread = nthread;
+        this.partitioner = Objects.requireNonNull(partitioner);
+        this.statistics = statistics.isEmpty() ? EnumSet.noneOf(Statistic.class) : EnumSet.copyOf(statistics);
+        this.histogramMin = histogramMin;
+        this.histogramMax = histogramMax;
+        this.buckets = statistics.contains(Statistic.HISTOGRAM) ? buckets : 0;
+    }
+
+    private class Worker extends Thread {
+        private final IntUnaryOperator source;
+        private final Partition partition;
+        private final int index;
+        private long count;
+        private long sum;
+        private int min = Integer.MAX_VALUE;
+        private int max = Integer.MIN_VALUE;
+        private final long[] histogram;
+        private Throwable failure;
+
+        /**
+         * Build a new worker.
+         *
+         * @param source
+         *            gives the element at each position
+         * @param partition
+         *            the assignment of positions to workers
+         * @param index
+         *            the index of this worker within the partition
+         */
+        Worker(final IntUnaryOperator source, final Partition partition, final int index) {
+            super();
+            this.source = source;
+            this.partition = partition;
+            this.index = index;
+            this.histogram = new long[buckets];
+        }
+
+        @Override
+        public void run() {
+            final boolean withSum = statistics.contains(Statistic.SUM) || statistics.contains(Statistic.MEAN);
+            final boolean withMin = statistics.contains(Statistic.MIN);
+            final boolean withMax = statistics.contains(Statistic.MAX);
+            final boolean withHistogram = buckets > 0;
+            try {
+                partition.forEachRange(index, (from, to) -> {
+                    sumRange(from, to, withSum, withMin, withMax, withHistogram);
+                    this.count += to - from;
+                });
+            } catch (RuntimeException | Error e) {
+                /*
+                 * Left to the caller, which would otherwise get partial statistics
+                 */
+                this.failure = e;
+            }
+        }
+
+        private void sumRange(final int from, final int to, final boolean withSum, final boolean withMin,
+                final boolean withMax, final boolean withHistogram) {
+            for (int i = from; i < to; i++) {
+                final int elem = source.applyAsInt(i);
+                if (withSum) {
+                    this.sum += elem;
+                }
+                if (withMin && elem < this.min) {
+                    this.min = elem;
+                }
+                if (withMax && elem > this.max) {
+                    this.max = elem;
+                }
+                if (withHistogram) {
+                    this.histogram[bucketOf(elem)]++;
+                }
+            }
+        }
+
+        /**
+         * Rethrows whatever made this worker fail, once it is done.
+         */
+        void rethrowFailure() {
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            } else if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+        }
+
+    }
+
+    private int bucketOf(final int elem) {
+        final long clamped = Math.max(histogramMin, Math.min(histogramMax - 1, elem));
+        return (int) ((clamped - histogramMin) * buckets / (histogramMax - histogramMin));
+    }
+
+    /**
+     * @param list
+     *            an arbitrary-sized list of integers
+     * @return the requested statistics of its elements
+     */
+    public Statistics compute(final List<Integer> list) {
+        if (!(list instanceof RandomAccess)) {
+            return compute(list.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return compute(list.size(), list::get);
+    }
+
+    /**
+     * @param array
+     *            an arbitrary-sized array of integers
+     * @return the requested statistics of its elements
+     */
+    public Statistics compute(final int[] array) {
+        return compute(array.length, i -> array[i]);
+    }
+
+    private Statistics compute(final int length, final IntUnaryOperator source) {
+        final Partition partition = partitioner.split(length, nthread);
+        /*
+         * Build a list of workers
+         */
+        final List<Worker> workers = new ArrayList<>(partition.getWorkers());
+        for (int i = 0; i < partition.getWorkers(); i++) {
+            workers.add(new Worker(source, partition, i));
+        }
+        /*
+         * Start them
+         */
+        for (final Worker w: workers) {
+            w.start();
+        }
+        /*
+         * Wait for them, merging their partial results
+         */
+        long count = 0;
+        long sum = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        final long[] histogram = new long[buckets];
+        for (final Worker w: workers) {
+            try {
+                w.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            w.rethrowFailure();
+            count += w.count;
+            sum += w.sum;
+            min = Math.min(min, w.min);
+            max = Math.max(max, w.max);
+            for (int b = 0; b < buckets; b++) {
+                histogram[b] += w.histogram[b];
+            }
+        }
+        return new Statistics(statistics, sum, min, max, count, histogram);
+    }
+}
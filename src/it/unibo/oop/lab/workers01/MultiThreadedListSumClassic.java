@@ -1,7 +1,14 @@
 package it.unibo.oop.lab.workers01;
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import it.unibo.oop.lab.workers.Partition;
+import it.unibo.oop.lab.workers.Partitioner;
 
 /**
  * This is a standard implementation of the calculation.
@@ -9,7 +16,15 @@ import java.util.List;
  */
 public final class MultiThreadedListSumClassic implements SumList {
 
+    /*
+     * Starts a brand new platform thread for every worker
+     */
+    private static final Executor THREAD_PER_WORKER = task -> new Thread(task).start();
+
     private final int nthread;
+    private final Partitioner partitioner;
+    private final Executor executor;
+    private final SumListener listener;
 
     /**
      *
@@ -17,74 +32,111 @@ public final class MultiThreadedListSumClassic implements SumList {
      *            no. of thread performing the sum.
      */
     public MultiThreadedListSumClassic(final int nthread) {
-        this.nthread = nthread;
+        this(nthread, THREAD_PER_WORKER);
     }
 
-    private static class Worker extends Thread {
-        private final List<Integer> list;
-        private final int startpos;
-        private final int nelem;
-        private long res;
-
-        /**
-         * Build a new worker.
-         *
-         * @param list
-         *            the list to sum
-         * @param startpos
-         *            the initial position for this worker
-         * @param nelem
-         *            the no. of elems to sum up for this worker
-         */
-        Worker(final List<Integer> list, final int startpos, final int nelem) {
-            super();
-            this.list = list;
-            this.startpos = startpos;
-            this.nelem = nelem;
-        }
+    /**
+     * Builds a summer running its workers on the given executor. For instance, an
+     * executor starting a virtual thread per task lets many concurrent callers
+     * fan out without each of them occupying as many platform threads.
+     *
+     * @param nthread
+     *            no. of workers performing the sum.
+     * @param executor
+     *            the executor running the workers
+     */
+    public MultiThreadedListSumClassic(final int nthread, final Executor executor) {
+        this(nthread, executor, SumListener.NONE);
+    }
 
-        @Override
-        public void run() {
-            System.out.println("Working from position " + startpos + " to position " + (startpos + nelem - 1));
-            for (int i = startpos; i < list.size() && i < startpos + nelem; i++) {
-                this.res += this.list.get(i);
-            }
-        }
+    /**
+     * Builds an instrumented summer, notifying the listener with the metrics of
+     * the workers of every sum. Workers are also recorded as flight recorder
+     * events, whenever a recording enables them.
+     *
+     * @param nthread
+     *            no. of workers performing the sum.
+     * @param executor
+     *            the executor running the workers
+     * @param listener
+     *            the listener of every sum
+     */
+    public MultiThreadedListSumClassic(final int nthread, final Executor executor, final SumListener listener) {
+        this(nthread, Partitioner.balanced(), executor, listener);
+    }
 
-        /**
-         * Returns the result of summing up the integers within the list.
-         *
-         * @return the sum of every element in the array
-         */
-        public long getResult() {
-            return this.res;
-        }
+    /**
+     * Builds a summer splitting the input among the workers with the given strategy.
+     *
+     * @param nthread
+     *            no. of thread performing the sum.
+     * @param partitioner
+     *            the strategy assigning positions to workers
+     */
+    public MultiThreadedListSumClassic(final int nthread, final Partitioner partitioner) {
+        this(nthread, partitioner, THREAD_PER_WORKER, SumListener.NONE);
+    }
 
+    /**
+     *
+     * @param nthread
+     *            no. of workers performing the sum.
+     * @param partitioner
+     *            the strategy assigning positions to workers
+     * @param executor
+     *            the executor running the workers
+     * @param listener
+     *            the listener of every sum
+     */
+    public MultiThreadedListSumClassic(final int nthread, final Partitioner partitioner,
+            final Executor executor, final SumListener listener) {
+        this.nthread = nthread;
+        this.partitioner = Objects.requireNonNull(partitioner);
+        this.executor = Objects.requireNonNull(executor);
+        this.listener = Objects.requireNonNull(listener);
     }
 
     @Override
     public long sum(final List<Integer> list) {
-        final int size = list.size() % nthread + list.size() / nthread;
+        return sum(list.size(), RangeSum.of(list));
+    }
+
+    @Override
+    public long sum(final int[] array) {
+        return sum(array.length, RangeSum.of(array));
+    }
+
+    @Override
+    public long sum(final long[] array) {
+        return sum(array.length, RangeSum.of(array));
+    }
+
+    @Override
+    public long sum(final IntBuffer buffer) {
+        return sum(buffer.remaining(), RangeSum.of(buffer));
+    }
+
+    private long sum(final int length, final RangeSum source) {
+        final Partition partition = partitioner.split(length, nthread);
         /*
          * Build a list of workers
          */
-        final List<Worker> workers = new ArrayList<>(nthread);
-        for (int start = 0; start < list.size(); start += size) {
-            workers.add(new Worker(list, start, size));
+        final List<SumWorker> workers = new ArrayList<>(partition.getWorkers());
+        for (int i = 0; i < partition.getWorkers(); i++) {
+            workers.add(new SumWorker((from, to, w) -> w.add(source.sum(from, to), to - from),
+                    partition, i, listener != SumListener.NONE));
         }
         /*
          * Start them
          */
-        for (final Worker w: workers) {
-            w.start();
+        for (final SumWorker w: workers) {
+            w.submit(executor);
         }
         /*
-         * Wait for every one of them to finish. This operation is _way_ better done by
-         * using barriers and latches, and the whole operation would be better done with
-         * futures.
+         * Wait for every one of them to finish
          */
         long sum = 0;
-        for (final Worker w: workers) {
+        for (final SumWorker w: workers) {
             try {
                 w.join();
                 sum += w.getResult();
@@ -92,9 +144,18 @@ public final class MultiThreadedListSumClassic implements SumList {
                 throw new IllegalStateException(e);
             }
         }
+        notifyListener(workers);
         /*
          * Return the sum
          */
         return sum;
     }
+
+    private void notifyListener(final List<SumWorker> workers) {
+        if (listener != SumListener.NONE) {
+            listener.sumCompleted(new SumMetrics(workers.stream()
+                    .map(SumWorker::getMetrics)
+                    .collect(Collectors.toList())));
+        }
+    }
 }
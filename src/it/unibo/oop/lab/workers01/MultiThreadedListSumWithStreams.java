@@ -1,15 +1,42 @@
 package it.unibo.oop.lab.workers01;
 
+import java.nio.IntBuffer;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import it.unibo.oop.lab.workers.CancellationToken;
+import it.unibo.oop.lab.workers.PartialResult;
+import it.unibo.oop.lab.workers.Partition;
+import it.unibo.oop.lab.workers.Partitioner;
+
 /**
  * This is an implementation using streams.
  *
+ * Sums can be bounded by a timeout or cancelled through a
+ * {@link CancellationToken}: workers check for cancellation every
+ * {@value #BLOCK} elements, and stop leaving a partial result behind.
+ *
  */
 public final class MultiThreadedListSumWithStreams implements SumList {
 
+    /*
+     * Starts a brand new platform thread for every worker
+     */
+    private static final Executor THREAD_PER_WORKER = task -> new Thread(task).start();
+
+    /**
+     * No. of elements summed by a worker between two checks for cancellation.
+     */
+    public static final int BLOCK = 1 << 16;
+
     private final int nthread;
+    private final Partitioner partitioner;
+    private final Executor executor;
+    private final SumListener listener;
 
     /**
      *
@@ -17,78 +44,182 @@ public final class MultiThreadedListSumWithStreams implements SumList {
      *            no. of thread performing the sum.
      */
     public MultiThreadedListSumWithStreams(final int nthread) {
-        this.nthread = nthread;
+        this(nthread, THREAD_PER_WORKER);
     }
 
-    private static class Worker extends Thread {
-        private final List<Integer> list;
-        private final int startpos;
-        private final int nelem;
-        private long res;
-
-        /**
-         * Build a new worker.
-         *
-         * @param list
-         *            the list to sum
-         * @param startpos
-         *            the initial position for this worker
-         * @param nelem
-         *            the no. of elems to sum up for this worker
-         */
-        Worker(final List<Integer> list, final int startpos, final int nelem) {
-            super();
-            this.list = list;
-            this.startpos = startpos;
-            this.nelem = nelem;
-        }
+    /**
+     * Builds a summer running its workers on the given executor. For instance, an
+     * executor starting a virtual thread per task lets many concurrent callers
+     * fan out without each of them occupying as many platform threads.
+     *
+     * @param nthread
+     *            no. of workers performing the sum.
+     * @param executor
+     *            the executor running the workers
+     */
+    public MultiThreadedListSumWithStreams(final int nthread, final Executor executor) {
+        this(nthread, executor, SumListener.NONE);
+    }
 
-        @Override
-        public void run() {
-            System.out.println("Working from position " + startpos + " to position " + (startpos + nelem - 1));
-            for (int i = startpos; i < list.size() && i < startpos + nelem; i++) {
-                this.res += this.list.get(i);
-            }
-        }
+    /**
+     * Builds an instrumented summer, notifying the listener with the metrics of
+     * the workers of every sum. Workers are also recorded as flight recorder
+     * events, whenever a recording enables them.
+     *
+     * @param nthread
+     *            no. of workers performing the sum.
+     * @param executor
+     *            the executor running the workers
+     * @param listener
+     *            the listener of every sum
+     */
+    public MultiThreadedListSumWithStreams(final int nthread, final Executor executor, final SumListener listener) {
+        this(nthread, Partitioner.balanced(), executor, listener);
+    }
 
-        /**
-         * Returns the result of summing up the integers within the list.
-         *
-         * @return the sum of every element in the array
-         */
-        public long getResult() {
-            return this.res;
-        }
+    /**
+     * Builds a summer splitting the input among the workers with the given strategy.
+     *
+     * @param nthread
+     *            no. of thread performing the sum.
+     * @param partitioner
+     *            the strategy assigning positions to workers
+     */
+    public MultiThreadedListSumWithStreams(final int nthread, final Partitioner partitioner) {
+        this(nthread, partitioner, THREAD_PER_WORKER, SumListener.NONE);
+    }
 
+    /**
+     *
+     * @param nthread
+     *            no. of workers performing the sum.
+     * @param partitioner
+     *            the strategy assigning positions to workers
+     * @param executor
+     *            the executor running the workers
+     * @param listener
+     *            the listener of every sum
+     */
+    public MultiThreadedListSumWithStreams(final int nthread, final Partitioner partitioner,
+            final Executor executor, final SumListener listener) {
+        this.nthread = nthread;
+        this.partitioner = Objects.requireNonNull(partitioner);
+        this.executor = Objects.requireNonNull(executor);
+        this.listener = Objects.requireNonNull(listener);
     }
 
     @Override
     public long sum(final List<Integer> list) {
-        final int size = list.size() % nthread + list.size() / nthread;
+        return sum(list.size(), RangeSum.of(list));
+    }
+
+    @Override
+    public long sum(final int[] array) {
+        return sum(array.length, RangeSum.of(array));
+    }
+
+    @Override
+    public long sum(final long[] array) {
+        return sum(array.length, RangeSum.of(array));
+    }
+
+    @Override
+    public long sum(final IntBuffer buffer) {
+        return sum(buffer.remaining(), RangeSum.of(buffer));
+    }
+
+    /**
+     * Sums the list, giving up when the timeout expires or when the calling
+     * thread is interrupted (in which case its interrupted status is kept).
+     *
+     * @param list
+     *            an arbitrary-sized list of integers
+     * @param timeout
+     *            the maximum time to wait
+     * @param unit
+     *            the time unit of the timeout
+     * @return the sum of its elements, or of the elements summed before giving up
+     */
+    public PartialResult<Long> sum(final List<Integer> list, final long timeout, final TimeUnit unit) {
+        return sum(list.size(), RangeSum.of(list), new CancellationToken(), unit.toNanos(timeout));
+    }
+
+    /**
+     * Sums the list, giving up when the token is cancelled or when the calling
+     * thread is interrupted (in which case its interrupted status is kept).
+     *
+     * @param list
+     *            an arbitrary-sized list of integers
+     * @param token
+     *            a token which may be cancelled from another thread
+     * @return the sum of its elements, or of the elements summed before giving up
+     */
+    public PartialResult<Long> sum(final List<Integer> list, final CancellationToken token) {
+        return sum(list.size(), RangeSum.of(list), token, Long.MAX_VALUE);
+    }
+
+    private long sum(final int length, final RangeSum source) {
+        final PartialResult<Long> result = sum(length, source, new CancellationToken(), Long.MAX_VALUE);
+        if (!result.isComplete()) {
+            throw new IllegalStateException("Interrupted after summing " + result.getCovered()
+                    + " elements out of " + length);
+        }
+        return result.getValue();
+    }
+
+    private PartialResult<Long> sum(final int length, final RangeSum source,
+            final CancellationToken token, final long timeoutNanos) {
+        final Partition partition = partitioner.split(length, nthread);
+        final long start = System.nanoTime();
+        /*
+         * Build a stream of workers, and start them all
+         */
+        final List<SumWorker> workers = IntStream.range(0, partition.getWorkers())
+                .mapToObj(i -> new SumWorker(byBlocks(source, token), partition, i, listener != SumListener.NONE))
+                .peek(w -> w.submit(executor))
+                .collect(Collectors.toList());
         /*
-         * Build a stream of workers
+         * Join them until the deadline, then stop the late ones and wait for them
+         * to acknowledge
          */
-        return IntStream.iterate(0, start -> start + size)
-                .limit(nthread)
-                .mapToObj(start -> new Worker(list, start, size))
-                // Start them
-                .peek(Thread::start)
-                // Join them
-                .peek(MultiThreadedListSumWithStreams::joinUninterruptibly)
-                 // Get their result and sum
-                .mapToLong(Worker::getResult)
-                .sum();
+        try {
+            for (final SumWorker w: workers) {
+                if (!token.isCancelled() && !w.join(timeoutNanos - (System.nanoTime() - start))) {
+                    token.cancel();
+                }
+            }
+        } catch (InterruptedException e) {
+            token.cancel();
+            Thread.currentThread().interrupt();
+        }
+        workers.forEach(SumWorker::joinUninterruptibly);
+        workers.forEach(SumWorker::rethrowFailure);
+        notifyListener(workers);
+        // Get their result and sum
+        return new PartialResult<>(
+                workers.stream().mapToLong(SumWorker::getResult).sum(),
+                workers.stream().mapToLong(SumWorker::getCovered).sum(),
+                length);
     }
 
-    private static void joinUninterruptibly(final Thread target) {
-        var joined = false;
-        while (!joined) {
-            try {
-                target.join();
-                joined = true;
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+    /*
+     * Sums every range one block at a time, stopping as soon as the token is
+     * cancelled
+     */
+    private static SumWorker.RangeStep byBlocks(final RangeSum source, final CancellationToken token) {
+        return (from, to, worker) -> {
+            for (int start = from; start < to && !token.isCancelled(); start += Math.min(BLOCK, to - start)) {
+                final int end = start + Math.min(BLOCK, to - start);
+                worker.add(source.sum(start, end), end - start);
             }
+        };
+    }
+
+    private void notifyListener(final List<SumWorker> workers) {
+        if (listener != SumListener.NONE) {
+            listener.sumCompleted(new SumMetrics(workers.stream()
+                    .map(SumWorker::getMetrics)
+                    .collect(Collectors.toList())));
         }
     }
 }
@@ -0,0 +1,98 @@
+package it.unibo.oop.lab.workers01;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sums an {@link OffHeapIntArray}, giving every worker a contiguous range of
+ * long positions whose lengths differ at most by one.
+ *
+ */
+public final class MultiThreadedOffHeapSum {
+
+    private final int nthread;
+
+    /**
+     *
+     * @param nthread
+     *            no. of thread performing the sum.
+     */
+    public MultiThreadedOffHeapSum(final int nthread) {
+        if (nthread <= 0) {
+            throw new IllegalArgumentException("The no. of threads must be positive, got " + nthread);
+        }
+        this.nthread = nthread;
+    }
+
+    private static class Worker extends Thread {
+        private final OffHeapIntArray array;
+        private final long startpos;
+        private final long nelem;
+        private long res;
+
+        /**
+         * Build a new worker.
+         *
+         * @param array
+         *            the array to sum
+         * @param startpos
+         *            the initial position for this worker
+         * @param nelem
+         *            the no. of elems to sum up for this worker
+         */
+        Worker(final OffHeapIntArray array, final long startpos, final long nelem) {
+            super();
+            this.array = array;
+            this.startpos = startpos;
+            this.nelem = nelem;
+        }
+
+        @Override
+        public void run() {
+            this.res = this.array.sum(startpos, startpos + nelem);
+        }
+
+        /**
+         * Returns the result of summing up the integers within the range.
+         *
+         * @return the sum of every element in the range
+         */
+        public long getResult() {
+            return this.res;
+        }
+
+    }
+
+    /**
+     * @param array
+     *            an arbitrary-sized off-heap array of integers
+     * @return the sum of its elements
+     */
+    public long sum(final OffHeapIntArray array) {
+        final long length = array.length();
+        final int nworkers = (int) Math.min(nthread, length);
+        /*
+         * Build a list of workers, with the remainder spread over the first ones
+         */
+        final List<Worker> workers = new ArrayList<>(nworkers);
+        long start = 0;
+        for (int i = 0; i < nworkers; i++) {
+            final long nelem = length / nworkers + (i < length % nworkers ? 1 : 0);
+            workers.add(new Worker(array, start, nelem));
+            start += nelem;
+        }
+        for (final Worker w: workers) {
+            w.start();
+        }
+        long sum = 0;
+        for (final Worker w: workers) {
+            try {
+                w.join();
+                sum += w.getResult();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,99 @@
+package it.unibo.oop.lab.workers01;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is an implementation of a streaming sum which dispatches every chunk to
+ * a pool of worker threads as soon as it is accepted. At most a fixed number of
+ * chunks can be either queued or in progress: once the limit is reached,
+ * {@link #accept(int[])} blocks until a worker is done, thus slowing the
+ * producer down to the pace of the workers and keeping memory usage constant.
+ *
+ */
+public final class MultiThreadedStreamingSum implements StreamingSum {
+
+    private final ExecutorService executor;
+    private final Semaphore pending;
+    private final LongAdder total = new LongAdder();
+    /*
+     * The first failure of a chunk, left to close() since workers have no
+     * caller to throw to
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     *
+     * @param nthread
+     *            no. of thread performing the sum.
+     * @param maxPending
+     *            max no. of chunks accepted but not yet summed
+     */
+    public MultiThreadedStreamingSum(final int nthread, final int maxPending) {
+        if (maxPending <= 0) {
+            throw new IllegalArgumentException("The no. of pending chunks must be positive, got " + maxPending);
+        }
+        this.executor = Executors.newFixedThreadPool(nthread);
+        this.pending = new Semaphore(maxPending);
+    }
+
+    @Override
+    public void accept(final int[] chunk) {
+        Objects.requireNonNull(chunk);
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("The summer has been closed");
+        }
+        try {
+            pending.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    total.add(RangeSum.of(chunk).sum(0, chunk.length));
+                } catch (RuntimeException | Error e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    pending.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.release();
+            throw new IllegalStateException("The summer has been closed", e);
+        }
+    }
+
+    @Override
+    public long currentTotal() {
+        return total.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        var terminated = executor.isTerminated();
+        while (!terminated) {
+            try {
+                terminated = executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        final Throwable error = failure.get();
+        if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw (RuntimeException) error;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package it.unibo.oop.lab.workers01;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * A fixed-length array of integers stored outside of the heap and indexed by
+ * longs, so that it can hold more than 2^31 elements without any GC pressure.
+ * A single direct buffer is int-indexed, so elements are spread over segments
+ * of at most 2^28 integers (1 GB) each.
+ *
+ * Memory is allocated as direct buffers, hence it is bounded by
+ * {@code -XX:MaxDirectMemorySize} and released once the array is collected.
+ * Concurrent reads are safe, while writes must be published to the readers, as
+ * with plain arrays.
+ *
+ */
+public final class OffHeapIntArray {
+
+    private static final int MAX_SEGMENT = 1 << 28;
+
+    private final long length;
+    private final int segmentLength;
+    private final IntBuffer[] segments;
+
+    /**
+     * Builds an array of zeros.
+     *
+     * @param length
+     *            the no. of elements of the array
+     */
+    public OffHeapIntArray(final long length) {
+        this(length, MAX_SEGMENT);
+    }
+
+    /**
+     * Builds an array of zeros.
+     *
+     * @param length
+     *            the no. of elements of the array
+     * @param segmentLength
+     *            the no. of elements of every segment
+     */
+    OffHeapIntArray(final long length, final int segmentLength) {
+        if (length < 0 || segmentLength <= 0 || segmentLength > MAX_SEGMENT) {
+            throw new IllegalArgumentException("Invalid length " + length + " or segment length " + segmentLength);
+        }
+        final long nsegments = (length + segmentLength - 1) / segmentLength;
+        if (nsegments > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many segments for " + length + " elements");
+        }
+        this.length = length;
+        this.segmentLength = segmentLength;
+        this.segments = new IntBuffer[(int) nsegments];
+        for (int i = 0; i < segments.length; i++) {
+            final long elements = Math.min(segmentLength, length - (long) i * segmentLength);
+            segments[i] = ByteBuffer.allocateDirect((int) elements * Integer.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asIntBuffer();
+        }
+    }
+
+    /**
+     * @return the no. of elements of the array
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * @param index
+     *            the position of the element
+     * @return the element at the given position
+     */
+    public int get(final long index) {
+        checkIndex(index);
+        return segments[(int) (index / segmentLength)].get((int) (index % segmentLength));
+    }
+
+    /**
+     * @param index
+     *            the position of the element
+     * @param value
+     *            the new value of the element
+     */
+    public void set(final long index, final int value) {
+        checkIndex(index);
+        segments[(int) (index / segmentLength)].put((int) (index % segmentLength), value);
+    }
+
+    /**
+     * @param from
+     *            the first position to sum (inclusive)
+     * @param to
+     *            the last position to sum (exclusive)
+     * @return the sum of the elements in the given range
+     */
+    public long sum(final long from, final long to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of " + length);
+        }
+        long res = 0;
+        for (long pos = from; pos < to;) {
+            final IntBuffer segment = segments[(int) (pos / segmentLength)];
+            final int start = (int) (pos % segmentLength);
+            final int end = (int) Math.min(segment.limit(), start + to - pos);
+            for (int i = start; i < end; i++) {
+                res += segment.get(i);
+            }
+            pos += end - start;
+        }
+        return res;
+    }
+
+    private void checkIndex(final long index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + length);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package it.unibo.oop.lab.workers01;
+
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.RandomAccess;
+
+import it.unibo.oop.lab.workers.SumKernels;
+
+/**
+ * A source of numbers which can be summed up one contiguous range of positions
+ * at a time. Several ranges of the same source may be summed concurrently, as
+ * long as nobody modifies the underlying data in the meanwhile.
+ *
+ */
+@FunctionalInterface
+interface RangeSum {
+
+    /**
+     * @param from
+     *            the first position to sum (inclusive)
+     * @param to
+     *            the last position to sum (exclusive)
+     * @return the sum of the elements in the given range
+     */
+    long sum(int from, int to);
+
+    /**
+     * Lists which do not support fast positional access (e.g.
+     * {@link java.util.LinkedList}) would make every range cost a linear scan to
+     * reach its first position, and every element a further scan when read with
+     * {@link List#get(int)}. Such lists are instead traversed exactly once, and
+     * their elements unboxed into an array which is then summed by ranges.
+     *
+     * @param list
+     *            the list to sum
+     * @return a {@link RangeSum} reading the elements of the list
+     */
+    static RangeSum of(final List<Integer> list) {
+        if (!(list instanceof RandomAccess)) {
+            return of(unbox(list));
+        }
+        return (from, to) -> {
+            long res = 0;
+            for (int i = from; i < to; i++) {
+                res += list.get(i);
+            }
+            return res;
+        };
+    }
+
+    /**
+     * @param array
+     *            the array to sum
+     * @return a {@link RangeSum} reading the array without any boxing
+     */
+    static RangeSum of(final int[] array) {
+        return (from, to) -> SumKernels.sum(array, from, to);
+    }
+
+    /**
+     * @param array
+     *            the array to sum
+     * @return a {@link RangeSum} reading the array without any boxing
+     */
+    static RangeSum of(final long[] array) {
+        return (from, to) -> SumKernels.sum(array, from, to);
+    }
+
+    /**
+     * Positions are relative to the current position of the buffer. Only
+     * absolute reads are performed, so the buffer position is never changed.
+     *
+     * @param buffer
+     *            the buffer to sum
+     * @return a {@link RangeSum} reading the remaining elements of the buffer
+     */
+    static RangeSum of(final IntBuffer buffer) {
+        final int base = buffer.position();
+        return (from, to) -> {
+            long res = 0;
+            for (int i = base + from; i < base + to; i++) {
+                res += buffer.get(i);
+            }
+            return res;
+        };
+    }
+
+    /**
+     * @param list
+     *            the list to unbox, traversed once with its iterator
+     * @return an array with the same elements of the list
+     */
+    private static int[] unbox(final List<Integer> list) {
+        final int[] array = new int[list.size()];
+        int i = 0;
+        for (final int elem: list) {
+            array[i++] = elem;
+        }
+        return array;
+    }
+
+}
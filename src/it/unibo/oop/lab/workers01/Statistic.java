@@ -0,0 +1,40 @@
+package it.unibo.oop.lab.workers01;
+
+/**
+ *
+ * The statistics which can be computed over a list of integers.
+ *
+ */
+public enum Statistic {
+
+    /**
+     * The sum of the elements.
+     */
+    SUM,
+
+    /**
+     * The smallest element.
+     */
+    MIN,
+
+    /**
+     * The largest element.
+     */
+    MAX,
+
+    /**
+     * The no. of elements.
+     */
+    COUNT,
+
+    /**
+     * The arithmetic mean of the elements.
+     */
+    MEAN,
+
+    /**
+     * The no. of elements falling in each of a set of equally wide buckets.
+     */
+    HISTOGRAM
+
+}
@@ -0,0 +1,128 @@
+package it.unibo.oop.lab.workers01;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ *
+ * The result of computing a set of {@link Statistic}s over a list of integers.
+ * Asking for a statistic which has not been computed is an error.
+ *
+ */
+public final class Statistics {
+
+    private final Set<Statistic> computed;
+    private final long sum;
+    private final int min;
+    private final int max;
+    private final long count;
+    private final long[] histogram;
+
+    /**
+     * Builds new {@link Statistics}.
+     *
+     * @param computed
+     *            the statistics which have been computed
+     * @param sum
+     *            the sum of the elements
+     * @param min
+     *            the smallest element
+     * @param max
+     *            the largest element
+     * @param count
+     *            the no. of elements
+     * @param histogram
+     *            the no. of elements in each bucket
+     */
+    Statistics(final Set<Statistic> computed, final long sum, final int min, final int max,
+            final long count, final long[] histogram) {
+        this.computed = Collections.unmodifiableSet(EnumSet.copyOf(computed));
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.count = count;
+        this.histogram = Arrays.copyOf(histogram, histogram.length);
+    }
+
+    /**
+     * @return the statistics which have been computed
+     */
+    public Set<Statistic> getComputed() {
+        return computed;
+    }
+
+    /**
+     * @return the sum of the elements
+     */
+    public long getSum() {
+        check(Statistic.SUM);
+        return sum;
+    }
+
+    /**
+     * @return the smallest element
+     * @throws NoSuchElementException
+     *             if there are no elements
+     */
+    public int getMin() {
+        check(Statistic.MIN);
+        checkNotEmpty();
+        return min;
+    }
+
+    /**
+     * @return the largest element
+     * @throws NoSuchElementException
+     *             if there are no elements
+     */
+    public int getMax() {
+        check(Statistic.MAX);
+        checkNotEmpty();
+        return max;
+    }
+
+    /**
+     * @return the no. of elements
+     */
+    public long getCount() {
+        check(Statistic.COUNT);
+        return count;
+    }
+
+    /**
+     * @return the arithmetic mean of the elements, NaN if there are none
+     */
+    public double getMean() {
+        check(Statistic.MEAN);
+        return count == 0 ? Double.NaN : (double) sum / count;
+    }
+
+    /**
+     * @return the no. of elements in each bucket, from the lowest to the highest
+     */
+    public long[] getHistogram() {
+        check(Statistic.HISTOGRAM);
+        return Arrays.copyOf(histogram, histogram.length);
+    }
+
+    private void check(final Statistic statistic) {
+        if (!computed.contains(statistic)) {
+            throw new IllegalStateException(statistic + " has not been computed");
+        }
+    }
+
+    private void checkNotEmpty() {
+        if (count == 0) {
+            throw new NoSuchElementException("There are no elements");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Statistics [computed=" + computed + ", sum=" + sum + ", min=" + min + ", max=" + max
+                + ", count=" + count + ", histogram=" + Arrays.toString(histogram) + "]";
+    }
+}
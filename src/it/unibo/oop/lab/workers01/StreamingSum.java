@@ -0,0 +1,38 @@
+package it.unibo.oop.lab.workers01;
+
+/**
+ *
+ * An interface defining a running sum over an unbounded sequence of chunks of
+ * integers, which are summed while further chunks are still arriving.
+ *
+ */
+public interface StreamingSum extends AutoCloseable {
+
+    /**
+     * Hands a chunk over to the summer. The chunk is not copied, so it must not
+     * be modified afterwards. This method blocks while too many chunks are
+     * still waiting to be summed.
+     *
+     * @param chunk
+     *            the next chunk of integers
+     * @throws NullPointerException
+     *             if the chunk is null
+     * @throws IllegalStateException
+     *             if the summer has been closed
+     */
+    void accept(int[] chunk);
+
+    /**
+     * @return the sum of the chunks summed up so far, which after
+     *         {@link #close()} is the sum of every accepted chunk
+     */
+    long currentTotal();
+
+    /**
+     * Stops accepting chunks and waits for the pending ones to be summed,
+     * rethrowing whatever made the sum of a chunk fail.
+     */
+    @Override
+    void close();
+
+}
@@ -1,5 +1,6 @@
 package it.unibo.oop.lab.workers01;
 
+import java.nio.IntBuffer;
 import java.util.List;
 
 /**
@@ -16,4 +17,42 @@ public interface SumList {
      */
     long sum(List<Integer> list);
 
+    /**
+     * @param array
+     *            an arbitrary-sized array of integers
+     * @return the sum of its elements
+     */
+    long sum(int[] array);
+
+    /**
+     * @param array
+     *            an arbitrary-sized array of longs
+     * @return the sum of its elements (overflowing silently, as long arithmetic does)
+     */
+    long sum(long[] array);
+
+    /**
+     * @param buffer
+     *            a buffer of integers, whose position and limit are left untouched
+     * @return the sum of the elements between the buffer position and its limit
+     */
+    long sum(IntBuffer buffer);
+
+    /**
+     * @param nthread
+     *            no. of thread performing the sum.
+     * @return a new {@link StreamingSum} summing chunks as soon as they arrive,
+     *         allowing twice as many pending chunks as threads
+     */
+    static StreamingSum streaming(final int nthread) {
+        return new MultiThreadedStreamingSum(nthread, 2 * nthread);
+    }
+
+    /**
+     * @return a new {@link StreamingSum} using one thread per available processor
+     */
+    static StreamingSum streaming() {
+        return streaming(Runtime.getRuntime().availableProcessors());
+    }
+
 }
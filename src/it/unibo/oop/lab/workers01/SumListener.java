@@ -0,0 +1,24 @@
+package it.unibo.oop.lab.workers01;
+
+/**
+ *
+ * A listener notified with the metrics of the workers of every sum.
+ *
+ */
+@FunctionalInterface
+public interface SumListener {
+
+    /**
+     * A listener ignoring every sum: with it, no metrics are collected at all.
+     */
+    SumListener NONE = metrics -> { };
+
+    /**
+     * Called by the thread which requested the sum, once every worker is done.
+     *
+     * @param metrics
+     *            the metrics of the workers of the sum
+     */
+    void sumCompleted(SumMetrics metrics);
+
+}
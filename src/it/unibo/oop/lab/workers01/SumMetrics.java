@@ -0,0 +1,58 @@
+package it.unibo.oop.lab.workers01;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *
+ * The metrics of every worker of a sum.
+ *
+ */
+public final class SumMetrics {
+
+    private final List<WorkerMetrics> workers;
+
+    /**
+     * Builds new {@link SumMetrics}.
+     *
+     * @param workers
+     *            the metrics of the workers
+     */
+    SumMetrics(final List<WorkerMetrics> workers) {
+        this.workers = Collections.unmodifiableList(workers);
+    }
+
+    /**
+     * @return the metrics of the workers, in order of position
+     */
+    public List<WorkerMetrics> getWorkers() {
+        return workers;
+    }
+
+    /**
+     * @return the time from the submission of the first worker to the end of
+     *         the last one
+     */
+    public long getElapsedNanos() {
+        return workers.stream().mapToLong(WorkerMetrics::getEndNanos).max().orElse(0)
+                - workers.stream().mapToLong(WorkerMetrics::getSubmitNanos).min().orElse(0);
+    }
+
+    /**
+     * @return the running time of the slowest worker divided by the average
+     *         one, which is 1 when the load is perfectly balanced
+     */
+    public double getImbalance() {
+        final double average = workers.stream().mapToLong(WorkerMetrics::getRunNanos).average().orElse(0);
+        if (average == 0) {
+            return 1;
+        }
+        return workers.stream().mapToLong(WorkerMetrics::getRunNanos).max().getAsLong() / average;
+    }
+
+    @Override
+    public String toString() {
+        return "SumMetrics [elapsed=" + getElapsedNanos() + "ns, imbalance=" + getImbalance()
+                + ", workers=" + workers + "]";
+    }
+}
@@ -0,0 +1,220 @@
+package it.unibo.oop.lab.workers01;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import it.unibo.oop.lab.workers.Partition;
+
+/**
+ * A worker summing the ranges of positions assigned to it by a
+ * {@link Partition}, shared by the list summers. The summers only tell how a
+ * single range is summed, while the worker keeps the partial result, the
+ * metrics of the run and whatever made it fail.
+ *
+ */
+final class SumWorker implements Runnable {
+
+    /**
+     * The way a summer sums a single range of positions.
+     */
+    @FunctionalInterface
+    interface RangeStep {
+
+        /**
+         * Sums the range, handing every partial sum over to
+         * {@link SumWorker#add(long, int)}.
+         *
+         * @param from
+         *            the first position to sum (inclusive)
+         * @param to
+         *            the last position to sum (exclusive)
+         * @param worker
+         *            the worker collecting the partial sums
+         */
+        void sum(int from, int to, SumWorker worker);
+    }
+
+    private final RangeStep step;
+    private final Partition partition;
+    private final int index;
+    private int startpos;
+    private int nelem;
+    private long res;
+    private long submitNanos;
+    private long startNanos;
+    private long endNanos;
+    private final boolean timed;
+    private Throwable failure;
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    /**
+     * Build a new worker.
+     *
+     * @param step
+     *            the way every range is summed
+     * @param partition
+     *            the assignment of positions to workers
+     * @param index
+     *            the index of this worker within the partition
+     * @param timed
+     *            whether someone listens to the metrics of this worker
+     */
+    SumWorker(final RangeStep step, final Partition partition, final int index, final boolean timed) {
+        this.step = step;
+        this.partition = partition;
+        this.index = index;
+        this.timed = timed || WorkerEvent.isRecording();
+    }
+
+    /**
+     * Hands this worker to an executor, recording when.
+     *
+     * @param executor
+     *            the executor running this worker
+     */
+    public void submit(final Executor executor) {
+        if (timed) {
+            this.submitNanos = System.nanoTime();
+        }
+        executor.execute(this);
+    }
+
+    @Override
+    public void run() {
+        /*
+         * Neither the clock nor the flight recorder are touched when nobody
+         * listens
+         */
+        if (timed && WorkerEvent.isRecording()) {
+            final WorkerEvent event = new WorkerEvent();
+            event.begin();
+            try {
+                sumRanges();
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.set(startpos, nelem, startNanos - submitNanos);
+                    event.commit();
+                }
+            }
+        } else {
+            sumRanges();
+        }
+    }
+
+    private void sumRanges() {
+        if (timed) {
+            this.startNanos = System.nanoTime();
+        }
+        try {
+            this.partition.forEachRange(index, (from, to) -> {
+                if (this.nelem == 0) {
+                    this.startpos = from;
+                }
+                this.step.sum(from, to, this);
+            });
+        } catch (RuntimeException | Error e) {
+            /*
+             * Left to the caller, which would otherwise get a partial sum
+             */
+            this.failure = e;
+        } finally {
+            if (timed) {
+                this.endNanos = System.nanoTime();
+            }
+            done.countDown();
+        }
+    }
+
+    /**
+     * Adds a partial sum to the result of this worker.
+     *
+     * @param partial
+     *            the sum of some elements
+     * @param count
+     *            the no. of elements summed
+     */
+    void add(final long partial, final int count) {
+        this.res += partial;
+        this.nelem += count;
+    }
+
+    /**
+     * Waits for this worker to finish, rethrowing whatever made it fail.
+     *
+     * @throws InterruptedException
+     *             if the calling thread is interrupted while waiting
+     */
+    public void join() throws InterruptedException {
+        done.await();
+        rethrowFailure();
+    }
+
+    /**
+     * Waits for this worker to finish, for a limited time.
+     *
+     * @param timeoutNanos
+     *            the maximum time to wait
+     * @return true if the worker is done
+     * @throws InterruptedException
+     *             if the calling thread is interrupted while waiting
+     */
+    public boolean join(final long timeoutNanos) throws InterruptedException {
+        return done.await(timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Waits for this worker to finish, no matter what.
+     */
+    public void joinUninterruptibly() {
+        var joined = false;
+        var interrupted = false;
+        while (!joined) {
+            try {
+                done.await();
+                joined = true;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Rethrows whatever made this worker fail, once it is done.
+     */
+    public void rethrowFailure() {
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+    }
+
+    /**
+     * Returns the result of summing up the integers within the list.
+     *
+     * @return the sum of every element in the array
+     */
+    public long getResult() {
+        return this.res;
+    }
+
+    /**
+     * @return the no. of elements summed up by this worker
+     */
+    public int getCovered() {
+        return this.nelem;
+    }
+
+    /**
+     * @return the metrics of this worker, once it is done
+     */
+    public WorkerMetrics getMetrics() {
+        return new WorkerMetrics(startpos, nelem, submitNanos, startNanos, endNanos);
+    }
+
+}
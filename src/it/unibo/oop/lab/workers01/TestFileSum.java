@@ -0,0 +1,71 @@
+package it.unibo.oop.lab.workers01;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+/**
+ *
+ * Test for {@link MultiThreadedFileSum}.
+ *
+ */
+public class TestFileSum {
+
+    private static final int SIZE = 10_000_000;
+    private static final long SMALL_SEGMENT = 1_000_003;
+    private static final String MSEC = " msec";
+
+    /**
+     * Sums files of ints and longs, also splitting ranges in several segments.
+     *
+     * @throws IOException
+     *             if the temporary files cannot be written
+     */
+    @Test
+    public void testBasic() throws IOException {
+        for (final MultiThreadedFileSum.Format format: MultiThreadedFileSum.Format.values()) {
+            final Path file = Files.createTempFile("sum", ".bin");
+            try {
+                final long sum = write(file, format);
+                long time;
+                for (final int threads: new int[] { 1, 2, 3, 8, 16, 32 }) {
+                    time = System.currentTimeMillis();
+                    assertEquals(sum, new MultiThreadedFileSum(threads).sum(file, format));
+                    assertEquals(sum, new MultiThreadedFileSum(threads, SMALL_SEGMENT).sum(file, format));
+                    System.out.println("Tried " + format + " with " + threads + " thread: "
+                            + (System.currentTimeMillis() - time) + MSEC);
+                }
+            } finally {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static long write(final Path file, final MultiThreadedFileSum.Format format) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long sum = 0;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            for (int i = 0; i < SIZE; i++) {
+                final long value = format == MultiThreadedFileSum.Format.INT32 ? -i : (long) i << Integer.SIZE;
+                buffer.clear();
+                if (format == MultiThreadedFileSum.Format.INT32) {
+                    buffer.putInt((int) value);
+                } else {
+                    buffer.putLong(value);
+                }
+                out.write(buffer.array(), 0, buffer.position());
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,79 @@
+package it.unibo.oop.lab.workers01;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ *
+ * Test for {@link MultiThreadedListStatistics}.
+ *
+ */
+public class TestListStatistics {
+
+    private static final int SIZE = 10_000_000;
+    private static final int BUCKETS = 10;
+    private static final double EXPECTED_DELTA = 0.01;
+    private static final String MSEC = " msec";
+
+    /**
+     * Every statistic at once, with different numbers of threads.
+     */
+    @Test
+    public void testBasic() {
+        final List<Integer> list = new ArrayList<>(SIZE);
+        long sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            list.add(i - SIZE / 2);
+            sum += i - SIZE / 2;
+        }
+        final long[] histogram = new long[BUCKETS];
+        Arrays.fill(histogram, SIZE / BUCKETS);
+        long time;
+        for (final int threads: new int[] { 1, 2, 3, 8, 16, 32 }) {
+            final MultiThreadedListStatistics engine = new MultiThreadedListStatistics(threads,
+                    EnumSet.allOf(Statistic.class), -SIZE / 2, SIZE / 2, BUCKETS);
+            time = System.currentTimeMillis();
+            final Statistics stats = engine.compute(list);
+            System.out.println("Tried with " + threads + " thread: "
+                    + (System.currentTimeMillis() - time) + MSEC);
+            assertEquals(sum, stats.getSum());
+            assertEquals(-SIZE / 2, stats.getMin());
+            assertEquals(SIZE / 2 - 1, stats.getMax());
+            assertEquals(SIZE, stats.getCount());
+            assertEquals((double) sum / SIZE, stats.getMean(), EXPECTED_DELTA);
+            assertArrayEquals(histogram, stats.getHistogram());
+        }
+    }
+
+    /**
+     * Statistics which have not been requested cannot be read.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testNotComputed() {
+        final Statistics stats = new MultiThreadedListStatistics(2, EnumSet.of(Statistic.MIN, Statistic.MAX))
+                .compute(new int[] { 3, 1, 2 });
+        assertEquals(1, stats.getMin());
+        assertEquals(3, stats.getMax());
+        stats.getSum();
+    }
+
+    /**
+     * A missing element makes the whole computation fail, instead of being
+     * silently left out of the statistics.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testNullElement() {
+        final List<Integer> list = new ArrayList<>(Collections.nCopies(SIZE / 10, 1));
+        list.set(list.size() / 2, null);
+        new MultiThreadedListStatistics(4, EnumSet.allOf(Statistic.class), 0, 2, 2).compute(list);
+    }
+
+}
@@ -0,0 +1,54 @@
+package it.unibo.oop.lab.workers01;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import it.unibo.oop.lab.workers.AutoTuner;
+
+/**
+ *
+ * Test for {@link AutoTunedListSum}.
+ *
+ */
+public class TestListSumAutoTuned {
+
+    private static final int SIZE = 10_000_000;
+    private static final int CALLS = 20;
+    private static final String MSEC = " msec";
+
+    /**
+     * Repeated sums of inputs of different sizes, while the tuner learns.
+     */
+    @Test
+    public void testBasic() {
+        final AutoTuner tuner = new AutoTuner();
+        final SumList sumList = new AutoTunedListSum(tuner);
+        for (final int size: new int[] { 0, 1_000, 100_000, SIZE }) {
+            final int[] array = new int[size];
+            final List<Integer> list = new ArrayList<>(size);
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                array[i] = i;
+                list.add(i);
+                sum += i;
+            }
+            long time = System.currentTimeMillis();
+            for (int i = 0; i < CALLS; i++) {
+                assertEquals(sum, sumList.sum(array));
+            }
+            time = System.currentTimeMillis() - time;
+            assertEquals(sum, sumList.sum(list));
+            assertEquals(sum, sumList.sum(IntBuffer.wrap(array)));
+            System.out.println("Tried " + CALLS + " sums of " + size + " elements: " + time + MSEC);
+        }
+        System.out.println("Break-even: " + tuner.getBreakEven() + " elements");
+        assertEquals(3, sumList.sum(new LinkedList<>(List.of(1, 2))));
+    }
+
+}
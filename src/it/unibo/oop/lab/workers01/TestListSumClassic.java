@@ -1,12 +1,21 @@
 package it.unibo.oop.lab.workers01;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 
+import it.unibo.oop.lab.workers.Partitioner;
+
 /**
  *
  * TestMatrix for worker 1.
@@ -22,6 +31,7 @@ public class TestListSumClassic {
      * manner - that's not an issue normally, however.
      */
     private static final int SIZE = 10_000_000;
+    private static final int LINKED_SIZE = 1_000_000;
     private static final String MSEC = " msec";
 
     /**
@@ -52,4 +62,129 @@ public class TestListSumClassic {
         }
     }
 
+    /**
+     * Multithreaded sum of primitive arrays and buffers, with no boxing at all.
+     */
+    @Test
+    public void testPrimitive() {
+        final int[] ints = new int[SIZE];
+        final long[] longs = new long[SIZE];
+        long sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            ints[i] = i;
+            longs[i] = i;
+            sum += i;
+        }
+        final IntBuffer buffer = IntBuffer.wrap(ints);
+        buffer.position(1);
+        long time;
+        for (final int threads: new int[] { 1, 2, 3, 8, 16, 32 }) {
+            final SumList sumList = new MultiThreadedListSumClassic(threads);
+            time = System.currentTimeMillis();
+            assertEquals(sum, sumList.sum(ints));
+            assertEquals(sum, sumList.sum(longs));
+            assertEquals(sum, sumList.sum(buffer));
+            assertEquals(1, buffer.position());
+            System.out.println("Tried primitives with " + threads + " thread: "
+                    + (System.currentTimeMillis() - time) + MSEC);
+        }
+    }
+
+    /**
+     * Lists without positional access must be summed in linear time.
+     */
+    @Test
+    public void testLinkedList() {
+        final List<Integer> list = new LinkedList<>();
+        long sum = 0;
+        for (int i = 0; i < LINKED_SIZE; i++) {
+            list.add(i);
+            sum += i;
+        }
+        long time;
+        for (final int threads: new int[] { 1, 2, 3, 8, 16, 32 }) {
+            final SumList sumList = new MultiThreadedListSumClassic(threads);
+            time = System.currentTimeMillis();
+            assertEquals(sum, sumList.sum(list));
+            System.out.println("Tried linked list with " + threads + " thread: "
+                    + (System.currentTimeMillis() - time) + MSEC);
+        }
+    }
+
+    /**
+     * Workers can run on a caller-supplied executor, even one with fewer threads.
+     */
+    @Test
+    public void testExecutor() {
+        final int[] array = new int[SIZE];
+        long sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            array[i] = i;
+            sum += i;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (final int threads: new int[] { 1, 2, 3, 8, 16, 32 }) {
+                assertEquals(sum, new MultiThreadedListSumClassic(threads, executor).sum(array));
+                assertEquals(sum, new MultiThreadedListSumClassic(threads, Runnable::run).sum(array));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * An instrumented sum reports the metrics of every worker.
+     */
+    @Test
+    public void testListener() {
+        final int[] array = new int[SIZE];
+        for (final int threads: new int[] { 1, 2, 3, 8, 16, 32 }) {
+            final AtomicReference<SumMetrics> metrics = new AtomicReference<>();
+            new MultiThreadedListSumClassic(threads, Runnable::run, metrics::set).sum(array);
+            assertTrue(metrics.get().getWorkers().size() <= threads);
+            assertEquals(SIZE, metrics.get().getWorkers().stream().mapToInt(WorkerMetrics::getNelem).sum());
+            assertTrue(metrics.get().getImbalance() >= 1);
+            System.out.println("Metrics with " + threads + " thread: " + metrics.get().getImbalance());
+        }
+    }
+
+    /**
+     * Every partitioning strategy gives the same result.
+     */
+    @Test
+    public void testPartitioners() {
+        final int[] array = new int[SIZE];
+        long sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            array[i] = i;
+            sum += i;
+        }
+        for (final Partitioner partitioner: new Partitioner[] {
+            Partitioner.balanced(), Partitioner.cacheAligned(Integer.BYTES), Partitioner.dynamic(SIZE / 100) }) {
+            for (final int threads: new int[] { 1, 2, 3, 8, 16, 32 }) {
+                assertEquals(sum, new MultiThreadedListSumClassic(threads, partitioner).sum(array));
+            }
+        }
+    }
+
+    /**
+     * A failing worker makes the whole sum fail, instead of leaving its part out.
+     */
+    @Test
+    public void testFailure() {
+        final List<Integer> list = new ArrayList<>(LINKED_SIZE);
+        for (int i = 0; i < LINKED_SIZE; i++) {
+            list.add(i == LINKED_SIZE - 1 ? null : i);
+        }
+        for (final int threads: new int[] { 1, 2, 3, 8 }) {
+            try {
+                new MultiThreadedListSumClassic(threads).sum(list);
+                fail("A null element was summed with " + threads + " thread");
+            } catch (NullPointerException e) {
+                System.out.println("Failed as expected with " + threads + " thread: " + e);
+            }
+        }
+    }
+
 }
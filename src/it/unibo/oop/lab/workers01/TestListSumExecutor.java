@@ -0,0 +1,76 @@
+package it.unibo.oop.lab.workers01;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ *
+ * Test for {@link ExecutorListSum}.
+ *
+ */
+public class TestListSumExecutor {
+
+    private static final int SIZE = 10_000_000;
+    private static final int SMALL_SIZE = 1_000;
+    private static final int CALLS = 10_000;
+    private static final int THREADS = 4;
+    private static final String MSEC = " msec";
+
+    /**
+     * Base test for an executor-backed list sum.
+     */
+    @Test
+    public void testBasic() {
+        final List<Integer> list = new ArrayList<>(SIZE);
+        long sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            list.add(i);
+            sum += i;
+        }
+        long time;
+        for (final int threads: new int[] { 1, 2, 3, 8, 16, 32 }) {
+            try (ExecutorListSum sumList = new ExecutorListSum(threads)) {
+                time = System.currentTimeMillis();
+                assertEquals(sum, sumList.sum(list));
+                System.out.println("Tried with " + threads + " thread: "
+                        + (System.currentTimeMillis() - time) + MSEC);
+            }
+        }
+    }
+
+    /**
+     * Many sums of small arrays reuse the same threads.
+     */
+    @Test
+    public void testManySmallSums() {
+        final int[] array = new int[SMALL_SIZE];
+        long sum = 0;
+        for (int i = 0; i < SMALL_SIZE; i++) {
+            array[i] = i;
+            sum += i;
+        }
+        try (ExecutorListSum sumList = new ExecutorListSum(THREADS)) {
+            final long time = System.currentTimeMillis();
+            for (int i = 0; i < CALLS; i++) {
+                assertEquals(sum, sumList.sum(array));
+            }
+            assertEquals(0, sumList.sum(new int[0]));
+            System.out.println(CALLS + " small sums: " + (System.currentTimeMillis() - time) + MSEC);
+        }
+    }
+
+    /**
+     * A closed summer cannot be used anymore.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testClosed() {
+        final ExecutorListSum sumList = new ExecutorListSum(2);
+        sumList.close();
+        sumList.sum(new int[] { 1, 2, 3 });
+    }
+
+}
@@ -0,0 +1,94 @@
+package it.unibo.oop.lab.workers01;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+/**
+ *
+ * Test for {@link ForkJoinListSum}.
+ *
+ */
+public class TestListSumForkJoin {
+
+    private static final int SIZE = 10_000_000;
+    private static final int LINKED_SIZE = 1_000_000;
+    private static final String MSEC = " msec";
+
+    /**
+     * Fork/join list sum with different thresholds, on the common pool.
+     */
+    @Test
+    public void testBasic() {
+        final List<Integer> list = new ArrayList<>(SIZE);
+        long sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            list.add(i);
+            sum += i;
+        }
+        long time;
+        for (final int threshold: new int[] { 1_000, 10_000, 100_000, SIZE }) {
+            final SumList sumList = new ForkJoinListSum(threshold);
+            time = System.currentTimeMillis();
+            assertEquals(sum, sumList.sum(list));
+            System.out.println("Tried with threshold " + threshold + ": "
+                    + (System.currentTimeMillis() - time) + MSEC);
+        }
+    }
+
+    /**
+     * Fork/join sum on pools of different parallelism, agreeing with the classic one.
+     */
+    @Test
+    public void testPools() {
+        final int[] array = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            array[i] = SIZE / 2 - i;
+        }
+        final long expected = new MultiThreadedListSumClassic(1).sum(array);
+        for (final int threads: new int[] { 1, 2, 3, 8 }) {
+            final ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                assertEquals(expected, new ForkJoinListSum(pool, ForkJoinListSum.DEFAULT_THRESHOLD).sum(array));
+                assertEquals(0, new ForkJoinListSum(pool, 1).sum(new int[0]));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Thresholds must be positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongThreshold() {
+        new ForkJoinListSum(0);
+    }
+
+    /**
+     * Lists without positional access must be summed in linear time.
+     */
+    @Test
+    public void testLinkedList() {
+        final List<Integer> list = new LinkedList<>();
+        long sum = 0;
+        for (int i = 0; i < LINKED_SIZE; i++) {
+            list.add(i);
+            sum += i;
+        }
+        long time;
+        for (final int threshold: new int[] { 1_000, 10_000, 100_000 }) {
+            final SumList sumList = new ForkJoinListSum(threshold);
+            time = System.currentTimeMillis();
+            assertEquals(sum, sumList.sum(list));
+            System.out.println("Tried linked list with threshold " + threshold + ": "
+                    + (System.currentTimeMillis() - time) + MSEC);
+        }
+    }
+
+}
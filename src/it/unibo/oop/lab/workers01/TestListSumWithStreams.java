@@ -1,13 +1,24 @@
 package it.unibo.oop.lab.workers01;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.nio.IntBuffer;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.junit.Test;
 
+import it.unibo.oop.lab.workers.CancellationToken;
+import it.unibo.oop.lab.workers.PartialResult;
+
 /**
  *
  * TestMatrix for worker 1.
@@ -52,4 +63,109 @@ public class TestListSumWithStreams {
         }
     }
 
+    /**
+     * Multithreaded sum of primitive arrays and buffers, with no boxing at all.
+     */
+    @Test
+    public void testPrimitive() {
+        final int[] ints = new int[SIZE];
+        final long[] longs = new long[SIZE];
+        long sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            ints[i] = i;
+            longs[i] = i;
+            sum += i;
+        }
+        final IntBuffer buffer = IntBuffer.wrap(ints);
+        buffer.position(1);
+        long time;
+        for (final int threads: new int[] { 1, 2, 3, 8, 16, 32 }) {
+            final SumList sumList = new MultiThreadedListSumWithStreams(threads);
+            time = System.currentTimeMillis();
+            assertEquals(sum, sumList.sum(ints));
+            assertEquals(sum, sumList.sum(longs));
+            assertEquals(sum, sumList.sum(buffer));
+            assertEquals(1, buffer.position());
+            System.out.println("Tried primitives with " + threads + " thread: "
+                    + (System.currentTimeMillis() - time) + MSEC);
+        }
+    }
+
+    /**
+     * Workers can run on a caller-supplied executor, even one with fewer threads.
+     */
+    @Test
+    public void testExecutor() {
+        final int[] array = new int[SIZE];
+        long sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            array[i] = i;
+            sum += i;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (final int threads: new int[] { 1, 2, 3, 8, 16, 32 }) {
+                assertEquals(sum, new MultiThreadedListSumWithStreams(threads, executor).sum(array));
+                assertEquals(sum, new MultiThreadedListSumWithStreams(threads, Runnable::run).sum(array));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Sums giving up early report how many elements they covered.
+     */
+    @Test
+    public void testTimeout() {
+        final List<Integer> list = IntStream
+                .generate(() -> 1)
+                .limit(SIZE)
+                .boxed()
+                .collect(Collectors.toList());
+        final PartialResult<Long> partial = new MultiThreadedListSumWithStreams(1,
+                afterGivingUp(Thread.currentThread())).sum(list, 1, TimeUnit.MILLISECONDS);
+        assertFalse(partial.isComplete());
+        assertEquals(0, partial.getCovered());
+        assertEquals(0, (long) partial.getValue());
+        final MultiThreadedListSumWithStreams summer = new MultiThreadedListSumWithStreams(1);
+        final PartialResult<Long> complete = summer.sum(list, 1, TimeUnit.HOURS);
+        assertTrue(complete.isComplete());
+        assertEquals(SIZE, (long) complete.getValue());
+        final CancellationToken token = new CancellationToken();
+        token.cancel();
+        assertEquals(0, new MultiThreadedListSumWithStreams(8).sum(list, token).getCovered());
+    }
+
+    /**
+     * A failing worker makes the whole sum fail with its own exception.
+     */
+    @Test
+    public void testFailure() {
+        final List<Integer> list = IntStream.range(0, SIZE / 10)
+                .mapToObj(i -> i == SIZE / 10 - 1 ? null : i)
+                .collect(Collectors.toList());
+        for (final int threads: new int[] { 1, 2, 3, 8 }) {
+            try {
+                new MultiThreadedListSumWithStreams(threads).sum(list);
+                fail("A null element was summed with " + threads + " thread");
+            } catch (NullPointerException e) {
+                System.out.println("Failed as expected with " + threads + " thread: " + e);
+            }
+        }
+    }
+
+    /*
+     * Runs every worker only once the caller waits for it with no deadline, that
+     * is after the caller gave up and cancelled the sum, whatever the timing
+     */
+    private static Executor afterGivingUp(final Thread caller) {
+        return task -> new Thread(() -> {
+            while (caller.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+            task.run();
+        }).start();
+    }
+
 }
@@ -0,0 +1,50 @@
+package it.unibo.oop.lab.workers01;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ *
+ * Test for {@link MultiThreadedOffHeapSum} and {@link OffHeapIntArray}.
+ *
+ */
+public class TestOffHeapSum {
+
+    private static final int SIZE = 10_000_000;
+    private static final int SMALL_SEGMENT = 1_000_003;
+    private static final String MSEC = " msec";
+
+    /**
+     * Base test for a multithreaded off-heap sum, also across several segments.
+     */
+    @Test
+    public void testBasic() {
+        for (final OffHeapIntArray array: new OffHeapIntArray[] {
+            new OffHeapIntArray(SIZE), new OffHeapIntArray(SIZE, SMALL_SEGMENT) }) {
+            long sum = 0;
+            for (long i = 0; i < array.length(); i++) {
+                array.set(i, (int) i);
+                sum += i;
+            }
+            assertEquals(SIZE - 1, array.get(SIZE - 1));
+            long time;
+            for (final int threads: new int[] { 1, 2, 3, 8, 16, 32 }) {
+                time = System.currentTimeMillis();
+                assertEquals(sum, new MultiThreadedOffHeapSum(threads).sum(array));
+                System.out.println("Tried off-heap with " + threads + " thread: "
+                        + (System.currentTimeMillis() - time) + MSEC);
+            }
+        }
+        assertEquals(0, new MultiThreadedOffHeapSum(2).sum(new OffHeapIntArray(0)));
+    }
+
+    /**
+     * Positions are checked against the length.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfBounds() {
+        new OffHeapIntArray(1).get(1);
+    }
+
+}
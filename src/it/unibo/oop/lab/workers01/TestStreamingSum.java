@@ -0,0 +1,62 @@
+package it.unibo.oop.lab.workers01;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ *
+ * Test for {@link MultiThreadedStreamingSum}.
+ *
+ */
+public class TestStreamingSum {
+
+    private static final int CHUNKS = 10_000;
+    private static final int CHUNK_SIZE = 1_000;
+    private static final String MSEC = " msec";
+
+    /**
+     * Chunks produced one at a time are all summed once the summer is closed.
+     */
+    @Test
+    public void testBasic() {
+        for (final int threads: new int[] { 1, 2, 3, 8, 16, 32 }) {
+            long sum = 0;
+            final long time = System.currentTimeMillis();
+            final StreamingSum streaming = SumList.streaming(threads);
+            for (int c = 0; c < CHUNKS; c++) {
+                final int[] chunk = new int[CHUNK_SIZE];
+                for (int i = 0; i < CHUNK_SIZE; i++) {
+                    chunk[i] = c * CHUNK_SIZE + i;
+                    sum += chunk[i];
+                }
+                streaming.accept(chunk);
+            }
+            streaming.close();
+            assertEquals(sum, streaming.currentTotal());
+            System.out.println("Tried streaming with " + threads + " thread: "
+                    + (System.currentTimeMillis() - time) + MSEC);
+        }
+    }
+
+    /**
+     * A closed summer does not accept chunks anymore.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testClosed() {
+        final StreamingSum streaming = SumList.streaming();
+        streaming.close();
+        streaming.accept(new int[] { 1 });
+    }
+
+    /**
+     * Missing chunks are rejected right away, instead of being skipped.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testNull() {
+        try (StreamingSum streaming = SumList.streaming()) {
+            streaming.accept(null);
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package it.unibo.oop.lab.workers01;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event covering the run of a single worker. Unless a
+ * recording enables it, the event is never committed and costs next to
+ * nothing.
+ *
+ */
+@Name("it.unibo.oop.lab.workers01.Worker")
+@Label("Sum Worker")
+@Category("Workers")
+@Description("A worker summing up a range of positions")
+final class WorkerEvent extends Event {
+
+    @Label("Start Position")
+    private int startpos;
+
+    @Label("Elements")
+    private int nelem;
+
+    @Label("Queue Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    private long queueWait;
+
+    /**
+     * Tells whether a recording enables these events, without allocating one.
+     *
+     * @return true if the events may be committed
+     */
+    static boolean isRecording() {
+        return Type.WORKER.isEnabled();
+    }
+
+    /**
+     * Fills in the details of the worker, before committing.
+     *
+     * @param startpos
+     *            the initial position of the worker
+     * @param nelem
+     *            the no. of elems summed up by the worker
+     * @param queueWait
+     *            how long the worker waited before running
+     */
+    void set(final int startpos, final int nelem, final long queueWait) {
+        this.startpos = startpos;
+        this.nelem = nelem;
+        this.queueWait = queueWait;
+    }
+
+    /*
+     * Looked up on first use, once the event class is initialized
+     */
+    private static final class Type {
+        private static final EventType WORKER = EventType.getEventType(WorkerEvent.class);
+    }
+
+}
@@ -0,0 +1,95 @@
+package it.unibo.oop.lab.workers01;
+
+/**
+ *
+ * The metrics of a single worker of a sum. Times come from
+ * {@link System#nanoTime()}, so they are only meaningful when compared to each
+ * other.
+ *
+ */
+public final class WorkerMetrics {
+
+    private final int startpos;
+    private final int nelem;
+    private final long submitNanos;
+    private final long startNanos;
+    private final long endNanos;
+
+    /**
+     * Builds new {@link WorkerMetrics}.
+     *
+     * @param startpos
+     *            the initial position of the worker
+     * @param nelem
+     *            the no. of elems summed up by the worker
+     * @param submitNanos
+     *            when the worker was handed to its executor
+     * @param startNanos
+     *            when the worker started running
+     * @param endNanos
+     *            when the worker finished
+     */
+    WorkerMetrics(final int startpos, final int nelem, final long submitNanos,
+            final long startNanos, final long endNanos) {
+        this.startpos = startpos;
+        this.nelem = nelem;
+        this.submitNanos = submitNanos;
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+    }
+
+    /**
+     * @return the initial position of the worker
+     */
+    public int getStartpos() {
+        return startpos;
+    }
+
+    /**
+     * @return the no. of elems summed up by the worker
+     */
+    public int getNelem() {
+        return nelem;
+    }
+
+    /**
+     * @return when the worker was handed to its executor
+     */
+    public long getSubmitNanos() {
+        return submitNanos;
+    }
+
+    /**
+     * @return when the worker started running
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * @return when the worker finished
+     */
+    public long getEndNanos() {
+        return endNanos;
+    }
+
+    /**
+     * @return how long the worker waited before running
+     */
+    public long getQueueWaitNanos() {
+        return startNanos - submitNanos;
+    }
+
+    /**
+     * @return how long the worker ran
+     */
+    public long getRunNanos() {
+        return endNanos - startNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkerMetrics [startpos=" + startpos + ", nelem=" + nelem
+                + ", queueWait=" + getQueueWaitNanos() + "ns, run=" + getRunNanos() + "ns]";
+    }
+}
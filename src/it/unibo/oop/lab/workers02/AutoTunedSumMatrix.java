@@ -0,0 +1,83 @@
+package it.unibo.oop.lab.workers02;
+
+import java.util.Objects;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+import it.unibo.oop.lab.workers.AutoTuner;
+import it.unibo.oop.lab.workers.Partitioner;
+
+/**
+ * Computes matrix sum with as many threads as an {@link AutoTuner} suggests
+ * for the number of elements of the matrix, timing every sum so that later
+ * ones are tuned on the host at hand. Matrices below the break-even size are
+ * summed by the calling thread; the others are split in tiles claimed
+ * dynamically by the workers, whatever their shape.
+ * */
+public class AutoTunedSumMatrix implements SumMatrix {
+
+    private final AutoTuner tuner;
+
+    /**
+     * Builds new {@link AutoTunedSumMatrix} with a tuner of its own.
+     * */
+    public AutoTunedSumMatrix() {
+        this(new AutoTuner());
+    }
+
+    /**
+     * Builds new {@link AutoTunedSumMatrix}.
+     *
+     * @param tuner
+     *          tuner picking threads and chunk size, possibly shared
+     * */
+    public AutoTunedSumMatrix(final AutoTuner tuner) {
+        this.tuner = Objects.requireNonNull(tuner);
+    }
+
+    /**
+     * {@inheritDoc}
+     * */
+    @Override
+    public double sum(final double[][] matrix) {
+        long size = 0;
+        for (final double[] row : matrix) {
+            size += row.length;
+        }
+        final MatrixView view = new MatrixView(matrix);
+        return this.sum(size, () -> view.sumRows(0, view.getRows()), plan -> new MultiThreadedSumMatrix(
+                plan.getThreads(), MultiThreadedSumMatrix.L1_TILE,
+                Partitioner.dynamic(Math.max(1, plan.getChunk() / MultiThreadedSumMatrix.L1_TILE)),
+                task -> new Thread(task).start()).sum(matrix));
+    }
+
+    /**
+     * {@inheritDoc}
+     * */
+    @Override
+    public double sum(final FlatMatrix matrix) {
+        return this.sum(matrix.size(), () -> matrix.sumElements(0, matrix.size()),
+                plan -> new MultiThreadedSumMatrix(plan.getThreads(), Partitioner.dynamic(plan.getChunk()))
+                        .sum(matrix));
+    }
+
+    /**
+     * {@inheritDoc}
+     * */
+    @Override
+    public double sum(final CsrMatrix matrix) {
+        return this.sum(matrix.getNonZeros(), () -> matrix.sumNonZeros(0, matrix.getNonZeros()),
+                plan -> new MultiThreadedSumMatrix(plan.getThreads(), Partitioner.dynamic(plan.getChunk()))
+                        .sum(matrix));
+    }
+
+    private double sum(final long size, final DoubleSupplier sequential,
+            final Function<AutoTuner.Plan, Double> parallel) {
+        final AutoTuner.Plan plan = this.tuner.plan(size);
+        final long start = System.nanoTime();
+        final double res = plan.getThreads() == 1 ? sequential.getAsDouble() : parallel.apply(plan);
+        this.tuner.record(plan, System.nanoTime() - start);
+        return res;
+    }
+
+}
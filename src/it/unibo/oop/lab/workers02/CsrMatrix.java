@@ -0,0 +1,175 @@
+package it.unibo.oop.lab.workers02;
+
+import java.util.Arrays;
+
+import it.unibo.oop.lab.workers.SumKernels;
+
+/**
+ * A sparse matrix in compressed sparse row format: the non-zero elements are
+ * stored in row-major order in a single array, alongside their columns, and
+ * every row is identified by the position of its first non-zero element.
+ * Memory and scan time are proportional to the number of non-zero elements,
+ * rather than to the size of the matrix.
+ * */
+public final class CsrMatrix {
+
+    private final int rows;
+    private final int cols;
+    private final double[] values;
+    private final int[] columns;
+    private final int[] rowStart;
+
+    /**
+     * Builds new {@link CsrMatrix} on top of existing arrays, which are not
+     * copied.
+     *
+     * @param cols
+     *          number of columns
+     * @param values
+     *          non-zero elements, in row-major order
+     * @param columns
+     *          column of every non-zero element, increasing within a row
+     * @param rowStart
+     *          position of the first non-zero element of every row, followed
+     *          by the number of non-zero elements
+     * */
+    public CsrMatrix(final int cols, final double[] values, final int[] columns, final int[] rowStart) {
+        if (cols < 0 || rowStart.length == 0 || values.length != columns.length
+                || rowStart[0] != 0 || rowStart[rowStart.length - 1] != values.length) {
+            throw new IllegalArgumentException("Invalid matrix with " + cols + " columns, "
+                    + values.length + " values, " + columns.length + " columns and "
+                    + rowStart.length + " row starts");
+        }
+        for (int r = 0; r < rowStart.length - 1; r++) {
+            if (rowStart[r] > rowStart[r + 1]) {
+                throw new IllegalArgumentException("Row " + r + " ends before it starts");
+            }
+            for (int i = rowStart[r]; i < rowStart[r + 1]; i++) {
+                if (columns[i] < 0 || columns[i] >= cols || i > rowStart[r] && columns[i] <= columns[i - 1]) {
+                    throw new IllegalArgumentException("Invalid column " + columns[i] + " in row " + r);
+                }
+            }
+        }
+        this.rows = rowStart.length - 1;
+        this.cols = cols;
+        this.values = values;
+        this.columns = columns;
+        this.rowStart = rowStart;
+    }
+
+    /**
+     * Builds new {@link CsrMatrix} copying the non-zero elements of a dense
+     * matrix. Rows of a jagged matrix are padded with zeros to the longest one.
+     *
+     * @param matrix
+     *          an arbitrary-sized matrix
+     * @return sparse copy of the matrix
+     * */
+    public static CsrMatrix fromDense(final double[][] matrix) {
+        int cols = 0;
+        int nonZeros = 0;
+        for (final double[] row : matrix) {
+            cols = Math.max(cols, row.length);
+            for (final double d : row) {
+                if (d != 0) {
+                    nonZeros++;
+                }
+            }
+        }
+        final double[] values = new double[nonZeros];
+        final int[] columns = new int[nonZeros];
+        final int[] rowStart = new int[matrix.length + 1];
+        int pos = 0;
+        for (int r = 0; r < matrix.length; r++) {
+            for (int c = 0; c < matrix[r].length; c++) {
+                if (matrix[r][c] != 0) {
+                    values[pos] = matrix[r][c];
+                    columns[pos] = c;
+                    pos++;
+                }
+            }
+            rowStart[r + 1] = pos;
+        }
+        return new CsrMatrix(cols, values, columns, rowStart);
+    }
+
+    /**
+     * Gets number of rows.
+     *
+     * @return number of rows
+     * */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Gets number of columns.
+     *
+     * @return number of columns
+     * */
+    public int getCols() {
+        return this.cols;
+    }
+
+    /**
+     * Gets number of non-zero elements.
+     *
+     * @return number of non-zero elements
+     * */
+    public int getNonZeros() {
+        return this.values.length;
+    }
+
+    /**
+     * Gets an element.
+     *
+     * @param row
+     *          row of the element
+     * @param col
+     *          column of the element
+     * @return value of the element
+     * */
+    public double get(final int row, final int col) {
+        if (row < 0 || row >= this.rows || col < 0 || col >= this.cols) {
+            throw new IndexOutOfBoundsException("(" + row + ", " + col + ") out of " + this.rows + "x" + this.cols);
+        }
+        final int pos = Arrays.binarySearch(this.columns, this.rowStart[row], this.rowStart[row + 1], col);
+        return pos < 0 ? 0 : this.values[pos];
+    }
+
+    /**
+     * Computes sum of a row.
+     *
+     * @param row
+     *          row to sum
+     * @return sum of the row
+     * */
+    public double sumRow(final int row) {
+        if (row < 0 || row >= this.rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of " + this.rows);
+        }
+        return SumKernels.sum(this.values, this.rowStart[row], this.rowStart[row + 1]);
+    }
+
+    /**
+     * Computes sum of a range of non-zero elements, in row-major order.
+     *
+     * @param from
+     *          first non-zero element to sum (inclusive)
+     * @param to
+     *          last non-zero element to sum (exclusive)
+     * @return sum of the elements in the range
+     * */
+    public double sumNonZeros(final int from, final int to) {
+        if (from < 0 || to > this.values.length || from > to) {
+            throw new IndexOutOfBoundsException("Elements [" + from + ", " + to + ") out of " + this.values.length);
+        }
+        return SumKernels.sum(this.values, from, to);
+    }
+
+    @Override
+    public String toString() {
+        return "CsrMatrix [rows=" + this.rows + ", cols=" + this.cols + ", nonZeros=" + this.values.length + "]";
+    }
+
+}
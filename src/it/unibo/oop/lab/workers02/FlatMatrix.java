@@ -0,0 +1,181 @@
+package it.unibo.oop.lab.workers02;
+
+import it.unibo.oop.lab.workers.SumKernels;
+
+/**
+ * A dense matrix stored in a single row-major array, so that rows lie next to
+ * each other in memory. Every row starts {@code stride} elements after the
+ * previous one, which allows padding rows, e.g. to align them to cache lines.
+ * */
+public final class FlatMatrix {
+
+    private final double[] data;
+    private final int rows;
+    private final int cols;
+    private final int stride;
+
+    /**
+     * Builds new {@link FlatMatrix} filled with zeros.
+     *
+     * @param rows
+     *          number of rows
+     * @param cols
+     *          number of columns
+     * */
+    public FlatMatrix(final int rows, final int cols) {
+        this(new double[checkedSize(rows, cols, cols)], rows, cols, cols);
+    }
+
+    /**
+     * Builds new {@link FlatMatrix} on top of an existing array, which is not
+     * copied: changes to the array are seen by the matrix, and vice versa.
+     *
+     * @param data
+     *          row-major elements
+     * @param rows
+     *          number of rows
+     * @param cols
+     *          number of columns
+     * @param stride
+     *          distance between the first elements of two consecutive rows
+     * */
+    public FlatMatrix(final double[] data, final int rows, final int cols, final int stride) {
+        if (stride < cols || data.length < checkedSize(rows, stride, cols)) {
+            throw new IllegalArgumentException("Invalid " + rows + "x" + cols + " matrix with stride " + stride
+                    + " over " + data.length + " elements");
+        }
+        this.data = data;
+        this.rows = rows;
+        this.cols = cols;
+        this.stride = stride;
+    }
+
+    /**
+     * Builds new {@link FlatMatrix} copying a rectangular matrix.
+     *
+     * @param matrix
+     *          matrix whose rows all have the same length
+     * @return flat copy of the matrix
+     * */
+    public static FlatMatrix of(final double[][] matrix) {
+        final int cols = matrix.length == 0 ? 0 : matrix[0].length;
+        final FlatMatrix flat = new FlatMatrix(matrix.length, cols);
+        for (int i = 0; i < matrix.length; i++) {
+            if (matrix[i].length != cols) {
+                throw new IllegalArgumentException("Row " + i + " has " + matrix[i].length
+                        + " elements instead of " + cols);
+            }
+            System.arraycopy(matrix[i], 0, flat.data, i * cols, cols);
+        }
+        return flat;
+    }
+
+    private static int checkedSize(final int rows, final int stride, final int cols) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Invalid size " + rows + "x" + cols);
+        }
+        return rows == 0 ? 0 : Math.toIntExact((long) (rows - 1) * stride + cols);
+    }
+
+    /**
+     * Gets number of rows.
+     *
+     * @return number of rows
+     * */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Gets number of columns.
+     *
+     * @return number of columns
+     * */
+    public int getCols() {
+        return this.cols;
+    }
+
+    /**
+     * Gets distance between the first elements of two consecutive rows.
+     *
+     * @return stride
+     * */
+    public int getStride() {
+        return this.stride;
+    }
+
+    /**
+     * Gets number of elements, padding excluded.
+     *
+     * @return rows times columns
+     * */
+    public int size() {
+        return this.rows * this.cols;
+    }
+
+    /**
+     * Gets an element.
+     *
+     * @param row
+     *          row of the element
+     * @param col
+     *          column of the element
+     * @return element
+     * */
+    public double get(final int row, final int col) {
+        return this.data[this.indexOf(row, col)];
+    }
+
+    /**
+     * Sets an element.
+     *
+     * @param row
+     *          row of the element
+     * @param col
+     *          column of the element
+     * @param value
+     *          new value of the element
+     * */
+    public void set(final int row, final int col, final double value) {
+        this.data[this.indexOf(row, col)] = value;
+    }
+
+    private int indexOf(final int row, final int col) {
+        if (row < 0 || row >= this.rows || col < 0 || col >= this.cols) {
+            throw new IndexOutOfBoundsException("(" + row + ", " + col + ") out of " + this.rows + "x" + this.cols);
+        }
+        return row * this.stride + col;
+    }
+
+    /**
+     * Computes sum of a range of elements, in row-major order and padding excluded.
+     *
+     * @param from
+     *          first element to sum (inclusive)
+     * @param to
+     *          last element to sum (exclusive)
+     * @return sum of the elements in the range
+     * */
+    public double sumElements(final int from, final int to) {
+        if (from < 0 || to > this.size() || from > to) {
+            throw new IndexOutOfBoundsException("Elements [" + from + ", " + to + ") out of " + this.size());
+        }
+        if (this.stride == this.cols) {
+            return SumKernels.sum(this.data, from, to);
+        }
+        double res = 0;
+        for (int pos = from; pos < to;) {
+            final int row = pos / this.cols;
+            final int col = pos % this.cols;
+            final int n = Math.min(this.cols - col, to - pos);
+            res += SumKernels.sum(this.data, row * this.stride + col, row * this.stride + col + n);
+            pos += n;
+        }
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        return "FlatMatrix [rows=" + this.rows + ", cols=" + this.cols + ", stride=" + this.stride + "]";
+    }
+}
@@ -0,0 +1,214 @@
+package it.unibo.oop.lab.workers02;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes matrix sums on a shared fork/join pool, whose threads are started
+ * once and reused by every sum.
+ *
+ * Large matrices are split in tiles which never cross the end of a row, and
+ * ranges of tiles are recursively halved until they hold about
+ * {@code threshold} elements; small matrices are summed by a single task.
+ * {@link #sumAll(List)} also halves the batch of matrices, so that idle
+ * threads steal whole matrices as well as parts of the large ones: many small
+ * inputs are summed without starting a thread each, and a few large ones still
+ * keep every thread busy.
+ * */
+public class ForkJoinSumMatrix implements SumMatrix {
+
+    /**
+     * Default number of elements summed by a single task without splitting.
+     * */
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Builds new {@link ForkJoinSumMatrix} running on the common pool with the
+     * default threshold.
+     * */
+    public ForkJoinSumMatrix() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Builds new {@link ForkJoinSumMatrix} running on the common pool.
+     *
+     * @param threshold
+     *          max number of elements summed by a single task without splitting
+     * */
+    public ForkJoinSumMatrix(final int threshold) {
+        this(ForkJoinPool.commonPool(), threshold);
+    }
+
+    /**
+     * Builds new {@link ForkJoinSumMatrix}.
+     *
+     * @param pool
+     *          pool running the tasks, whose lifecycle is up to the caller
+     * @param threshold
+     *          max number of elements summed by a single task without splitting
+     * */
+    public ForkJoinSumMatrix(final ForkJoinPool pool, final int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("The threshold must be positive, got " + threshold);
+        }
+        this.pool = Objects.requireNonNull(pool);
+        this.threshold = threshold;
+    }
+
+    private static class MatrixTask extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient double[][] matrix;
+        private final int threshold;
+
+        /**
+         * Builds new {@link MatrixTask}.
+         *
+         * @param matrix
+         *          matrix to sum
+         * @param threshold
+         *          max number of elements to sum without splitting
+         * */
+        MatrixTask(final double[][] matrix, final int threshold) {
+            super();
+            this.matrix = matrix;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Double compute() {
+            final MatrixView view = new MatrixView(this.matrix);
+            long elements = 0;
+            for (final double[] row : this.matrix) {
+                elements += row.length;
+            }
+            if (elements <= this.threshold) {
+                return view.sumRows(0, view.getRows());
+            }
+            final MatrixTiles tiles = new MatrixTiles(view, MultiThreadedSumMatrix.L1_TILE);
+            final int leafTiles = (int) Math.max(1, (long) this.threshold * tiles.getTiles() / elements);
+            return new TileTask(tiles, 0, tiles.getTiles(), leafTiles).compute();
+        }
+
+    }
+
+    private static class TileTask extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient MatrixTiles tiles;
+        private final int from;
+        private final int to;
+        private final int leafTiles;
+
+        /**
+         * Builds new {@link TileTask}.
+         *
+         * @param tiles
+         *          tiles of the matrix to sum
+         * @param from
+         *          first tile to sum (inclusive)
+         * @param to
+         *          last tile to sum (exclusive)
+         * @param leafTiles
+         *          max number of tiles to sum without splitting
+         * */
+        TileTask(final MatrixTiles tiles, final int from, final int to, final int leafTiles) {
+            super();
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.leafTiles = leafTiles;
+        }
+
+        @Override
+        protected Double compute() {
+            if (this.to - this.from <= this.leafTiles) {
+                return this.tiles.sumTiles(this.from, this.to);
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            final TileTask left = new TileTask(this.tiles, this.from, middle, this.leafTiles);
+            /*
+             * Leave the left half to thieves, and keep working on the right one
+             */
+            left.fork();
+            final double right = new TileTask(this.tiles, middle, this.to, this.leafTiles).compute();
+            return right + left.join();
+        }
+
+    }
+
+    private static class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<double[][]> matrices;
+        private final transient double[] results;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        /**
+         * Builds new {@link BatchTask}.
+         *
+         * @param matrices
+         *          matrices to sum
+         * @param results
+         *          sums of the matrices, each written by the task of its matrix
+         * @param from
+         *          first matrix to sum (inclusive)
+         * @param to
+         *          last matrix to sum (exclusive)
+         * @param threshold
+         *          max number of elements to sum without splitting
+         * */
+        BatchTask(final List<double[][]> matrices, final double[] results, final int from, final int to,
+                final int threshold) {
+            super();
+            this.matrices = matrices;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                this.results[this.from] = new MatrixTask(this.matrices.get(this.from), this.threshold).compute();
+            } else if (this.to > this.from) {
+                final int middle = (this.from + this.to) >>> 1;
+                invokeAll(new BatchTask(this.matrices, this.results, this.from, middle, this.threshold),
+                        new BatchTask(this.matrices, this.results, middle, this.to, this.threshold));
+            }
+        }
+
+    }
+
+    /**
+     * {@inheritDoc}
+     * */
+    @Override
+    public double sum(final double[][] matrix) {
+        return this.pool.invoke(new MatrixTask(matrix, this.threshold));
+    }
+
+    /**
+     * Sums many matrices at once.
+     *
+     * @param matrices
+     *          arbitrary-sized matrices, accessed by position
+     * @return sum of the elements of every matrix, in the same order
+     * */
+    public double[] sumAll(final List<double[][]> matrices) {
+        final double[] results = new double[matrices.size()];
+        this.pool.invoke(new BatchTask(matrices, results, 0, matrices.size(), this.threshold));
+        return results;
+    }
+
+}
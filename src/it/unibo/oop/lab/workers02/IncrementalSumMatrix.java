@@ -0,0 +1,180 @@
+package it.unibo.oop.lab.workers02;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import it.unibo.oop.lab.workers.Partition;
+import it.unibo.oop.lab.workers.Partitioner;
+import it.unibo.oop.lab.workers.SumKernels;
+
+/**
+ * A mutable matrix keeping track of the sum of its elements.
+ *
+ * The sum of every row is cached, and updating an element only marks its row
+ * as dirty: the next {@link #sum()} recomputes the dirty rows alone, in
+ * parallel when they are many, and then adds up the cached row sums again.
+ * Summing after a few updates costs as much as the rows they touched plus one
+ * pass over the row sums, instead of the whole matrix. The total is never
+ * kept by differences, which would carry an overflow to infinity or a lost
+ * low-order digit over to every later sum.
+ *
+ * The matrix is wrapped rather than copied, so it must only be modified
+ * through {@link #set(int, int, double)}, or followed by
+ * {@link #invalidateRow(int)}. Instances are not thread-safe.
+ * */
+public class IncrementalSumMatrix {
+
+    /**
+     * Minimum number of dirty elements making it worth to recompute rows in parallel.
+     * */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final double[][] matrix;
+    private final int nThreads;
+    private final double[] rowSums;
+    private final BitSet dirty;
+    private double total;
+    private boolean totalStale;
+
+    /**
+     * Builds new {@link IncrementalSumMatrix}. Every row is dirty, until the
+     * first sum.
+     *
+     * @param matrix
+     *          an arbitrary-sized matrix, which is not copied
+     * @param nThreads
+     *          number of threads to be used to recompute dirty rows
+     * */
+    public IncrementalSumMatrix(final double[][] matrix, final int nThreads) {
+        if (nThreads <= 0) {
+            throw new IllegalArgumentException("The no. of threads must be positive, got " + nThreads);
+        }
+        this.matrix = matrix;
+        this.nThreads = nThreads;
+        this.rowSums = new double[matrix.length];
+        this.dirty = new BitSet(matrix.length);
+        this.dirty.set(0, matrix.length);
+    }
+
+    /**
+     * Gets an element.
+     *
+     * @param row
+     *          row of the element
+     * @param col
+     *          column of the element
+     * @return value of the element
+     * */
+    public double get(final int row, final int col) {
+        return this.matrix[row][col];
+    }
+
+    /**
+     * Updates an element, marking its row as dirty.
+     *
+     * @param row
+     *          row of the element
+     * @param col
+     *          column of the element
+     * @param value
+     *          new value of the element
+     * */
+    public void set(final int row, final int col, final double value) {
+        this.matrix[row][col] = value;
+        this.dirty.set(row);
+    }
+
+    /**
+     * Marks a row as dirty, after it has been modified directly.
+     *
+     * @param row
+     *          row which has been modified
+     * */
+    public void invalidateRow(final int row) {
+        if (row < 0 || row >= this.matrix.length) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of " + this.matrix.length);
+        }
+        this.dirty.set(row);
+    }
+
+    /**
+     * Gets number of rows waiting to be recomputed.
+     *
+     * @return number of dirty rows
+     * */
+    public int getDirtyRows() {
+        return this.dirty.cardinality();
+    }
+
+    /**
+     * Computes sum of a row, recomputing it if dirty.
+     *
+     * @param row
+     *          row to sum
+     * @return sum of the row
+     * */
+    public double sumRow(final int row) {
+        if (this.dirty.get(row)) {
+            this.rowSums[row] = SumKernels.sum(this.matrix[row]);
+            this.dirty.clear(row);
+            this.totalStale = true;
+        }
+        return this.rowSums[row];
+    }
+
+    /**
+     * Computes sum of the matrix, recomputing dirty rows only.
+     *
+     * @return sum of its elements
+     * */
+    public double sum() {
+        if (this.dirty.isEmpty() && !this.totalStale) {
+            return this.total;
+        }
+        final int[] rows = this.dirty.stream().toArray();
+        long cells = 0;
+        for (final int r : rows) {
+            cells += this.matrix[r].length;
+        }
+        final double[] sums = new double[rows.length];
+        if (this.nThreads == 1 || cells < PARALLEL_THRESHOLD) {
+            sumRows(rows, sums, 0, rows.length);
+        } else {
+            this.sumRowsInParallel(rows, sums);
+        }
+        for (int i = 0; i < rows.length; i++) {
+            this.rowSums[rows[i]] = sums[i];
+        }
+        this.dirty.clear();
+        this.total = SumKernels.sum(this.rowSums);
+        this.totalStale = false;
+        return this.total;
+    }
+
+    private void sumRowsInParallel(final int[] rows, final double[] sums) {
+        final Partition partition = Partitioner.balanced().split(rows.length, this.nThreads);
+        final List<Thread> workers = new ArrayList<>(partition.getWorkers());
+        for (int i = 0; i < partition.getWorkers(); i++) {
+            final int index = i;
+            workers.add(new Thread(() -> partition.forEachRange(index, (from, to) -> sumRows(rows, sums, from, to))));
+        }
+        for (final Thread w : workers) {
+            w.start();
+        }
+        for (final Thread w : workers) {
+            try {
+                w.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private void sumRows(final int[] rows, final double[] sums, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            sums[i] = SumKernels.sum(this.matrix[rows[i]]);
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+package it.unibo.oop.lab.workers02;
+
+import java.util.Arrays;
+
+/**
+ * The row sums, column sums and grand total of a matrix. Rows of a jagged
+ * matrix contribute to the columns they have, so there are as many column
+ * sums as elements in the longest row.
+ * */
+public final class MatrixAggregates {
+
+    private final double[] rowSums;
+    private final double[] columnSums;
+    private final double total;
+
+    /**
+     * Builds new {@link MatrixAggregates}, taking ownership of the arrays.
+     *
+     * @param rowSums
+     *          sum of every row
+     * @param columnSums
+     *          sum of every column
+     * @param total
+     *          sum of every element
+     * */
+    MatrixAggregates(final double[] rowSums, final double[] columnSums, final double total) {
+        this.rowSums = rowSums;
+        this.columnSums = columnSums;
+        this.total = total;
+    }
+
+    /**
+     * Gets number of rows of the matrix.
+     *
+     * @return number of rows
+     * */
+    public int getRows() {
+        return this.rowSums.length;
+    }
+
+    /**
+     * Gets number of columns of the matrix, i.e. length of its longest row.
+     *
+     * @return number of columns
+     * */
+    public int getColumns() {
+        return this.columnSums.length;
+    }
+
+    /**
+     * Gets sum of a row.
+     *
+     * @param row
+     *          index of the row
+     * @return sum of its elements
+     * */
+    public double getRowSum(final int row) {
+        return this.rowSums[row];
+    }
+
+    /**
+     * Gets sum of a column.
+     *
+     * @param column
+     *          index of the column
+     * @return sum of its elements
+     * */
+    public double getColumnSum(final int column) {
+        return this.columnSums[column];
+    }
+
+    /**
+     * Gets sum of every row.
+     *
+     * @return a copy of the row sums
+     * */
+    public double[] getRowSums() {
+        return Arrays.copyOf(this.rowSums, this.rowSums.length);
+    }
+
+    /**
+     * Gets sum of every column.
+     *
+     * @return a copy of the column sums
+     * */
+    public double[] getColumnSums() {
+        return Arrays.copyOf(this.columnSums, this.columnSums.length);
+    }
+
+    /**
+     * Gets sum of every element of the matrix.
+     *
+     * @return total
+     * */
+    public double getTotal() {
+        return this.total;
+    }
+
+    @Override
+    public String toString() {
+        return "MatrixAggregates [rows=" + this.getRows() + ", columns=" + this.getColumns()
+                + ", total=" + this.total + "]";
+    }
+
+}
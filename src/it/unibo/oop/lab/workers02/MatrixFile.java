@@ -0,0 +1,230 @@
+package it.unibo.oop.lab.workers02;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A matrix stored in a binary file, made of a header followed by the elements
+ * in row-major order. Everything is little-endian. The header is made of:
+ * <ul>
+ * <li>the magic number {@value #MAGIC}, as a 32 bit integer;</li>
+ * <li>the code of the {@link DataType} of the elements, as a 32 bit integer;</li>
+ * <li>the number of rows, as a 64 bit integer;</li>
+ * <li>the number of columns, as a 64 bit integer.</li>
+ * </ul>
+ * Elements start right after the header, which is {@value #HEADER_BYTES} bytes
+ * long so that they are aligned to their size.
+ * */
+public final class MatrixFile {
+
+    /**
+     * Magic number opening every matrix file ("MTRX" in ASCII).
+     * */
+    public static final int MAGIC = 0x4D545258;
+
+    /**
+     * Number of bytes of the header.
+     * */
+    public static final int HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES;
+
+    /**
+     * The type of the elements stored in the file.
+     * */
+    public enum DataType {
+
+        /**
+         * IEEE 754 single precision values.
+         * */
+        FLOAT32(1, Float.BYTES),
+
+        /**
+         * IEEE 754 double precision values.
+         * */
+        FLOAT64(2, Double.BYTES);
+
+        private final int code;
+        private final int bytes;
+
+        DataType(final int code, final int bytes) {
+            this.code = code;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Gets code of the type within the header.
+         *
+         * @return code of the type
+         * */
+        public int getCode() {
+            return this.code;
+        }
+
+        /**
+         * Gets number of bytes of every element.
+         *
+         * @return number of bytes
+         * */
+        public int getBytes() {
+            return this.bytes;
+        }
+
+        private static DataType of(final int code) {
+            for (final DataType type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown data type " + code);
+        }
+    }
+
+    private final Path path;
+    private final DataType type;
+    private final long rows;
+    private final long cols;
+
+    private MatrixFile(final Path path, final DataType type, final long rows, final long cols) {
+        this.path = path;
+        this.type = type;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Reads the header of a matrix file, checking it matches the size of the file.
+     *
+     * @param path
+     *          file to be read
+     * @return the matrix stored in the file
+     * @throws IOException
+     *          if the file cannot be read
+     * @throws IllegalArgumentException
+     *          if the file is not a valid matrix file
+     * */
+    public static MatrixFile open(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            int read = 0;
+            while (header.hasRemaining() && read >= 0) {
+                read = channel.read(header);
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException(path + " is not a matrix file");
+            }
+            final DataType type = DataType.of(header.getInt(Integer.BYTES));
+            final long rows = header.getLong(2 * Integer.BYTES);
+            final long cols = header.getLong(2 * Integer.BYTES + Long.BYTES);
+            if (rows < 0 || cols < 0 || channel.size() != HEADER_BYTES
+                    + Math.multiplyExact(Math.multiplyExact(rows, cols), (long) type.getBytes())) {
+                throw new IllegalArgumentException("The size of " + path + " does not match a " + rows + "x" + cols
+                        + " " + type + " matrix");
+            }
+            return new MatrixFile(path, type, rows, cols);
+        }
+    }
+
+    /**
+     * Writes a rectangular matrix to a file, one row at a time.
+     *
+     * @param path
+     *          file to be written, replaced if it exists
+     * @param matrix
+     *          matrix whose rows all have the same length
+     * @param type
+     *          type the elements are stored as
+     * @return the matrix stored in the file
+     * @throws IOException
+     *          if the file cannot be written
+     * */
+    public static MatrixFile write(final Path path, final double[][] matrix, final DataType type) throws IOException {
+        final long cols = matrix.length == 0 ? 0 : matrix[0].length;
+        /*
+         * Checked before the file is even opened, so that a jagged matrix
+         * does not leave a truncated file behind
+         */
+        for (int i = 0; i < matrix.length; i++) {
+            if (matrix[i].length != cols) {
+                throw new IllegalArgumentException("Row " + i + " has " + matrix[i].length
+                        + " elements instead of " + cols);
+            }
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(type.getCode()).putLong(matrix.length).putLong(cols);
+        final ByteBuffer row = ByteBuffer.allocate(Math.toIntExact(cols * type.getBytes()))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            out.write(buffer.array());
+            for (final double[] elems : matrix) {
+                row.clear();
+                for (final double d : elems) {
+                    if (type == DataType.FLOAT32) {
+                        row.putFloat((float) d);
+                    } else {
+                        row.putDouble(d);
+                    }
+                }
+                out.write(row.array());
+            }
+        }
+        return new MatrixFile(path, type, matrix.length, cols);
+    }
+
+    /**
+     * Gets the file storing the matrix.
+     *
+     * @return path of the file
+     * */
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Gets type of the elements.
+     *
+     * @return type of the elements
+     * */
+    public DataType getType() {
+        return this.type;
+    }
+
+    /**
+     * Gets number of rows.
+     *
+     * @return number of rows
+     * */
+    public long getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Gets number of columns.
+     *
+     * @return number of columns
+     * */
+    public long getCols() {
+        return this.cols;
+    }
+
+    /**
+     * Gets number of elements.
+     *
+     * @return number of elements
+     * */
+    public long size() {
+        return this.rows * this.cols;
+    }
+
+    @Override
+    public String toString() {
+        return "MatrixFile [path=" + this.path + ", type=" + this.type + ", rows=" + this.rows
+                + ", cols=" + this.cols + "]";
+    }
+
+}
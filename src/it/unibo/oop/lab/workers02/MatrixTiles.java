@@ -0,0 +1,98 @@
+package it.unibo.oop.lab.workers02;
+
+/**
+ * A split of the rows of a matrix in tiles, i.e. contiguous ranges of at most
+ * a given number of elements which never cross the end of a row. Tiles are
+ * numbered in row-major order, so a range of tiles may start in the middle of
+ * a row and end in another one: splitting the tiles among workers splits long
+ * rows among many of them, whatever the shape of the matrix.
+ * */
+final class MatrixTiles {
+
+    private final MatrixView view;
+    private final int tileSize;
+    /*
+     * Index of the first tile of every row, plus the total no. of tiles
+     */
+    private final int[] firstTile;
+
+    /**
+     * Builds new {@link MatrixTiles}.
+     *
+     * @param view
+     *          rows to be split
+     * @param tileSize
+     *          maximum number of elements of a tile
+     * */
+    MatrixTiles(final MatrixView view, final int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("The tile size must be positive, got " + tileSize);
+        }
+        this.view = view;
+        this.tileSize = tileSize;
+        this.firstTile = new int[view.getRows() + 1];
+        long tiles = 0;
+        for (int i = 0; i < view.getRows(); i++) {
+            tiles += ((long) view.getRowLength(i) + tileSize - 1) / tileSize;
+            if (tiles > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many tiles of " + tileSize + " elements");
+            }
+            this.firstTile[i + 1] = (int) tiles;
+        }
+    }
+
+    /**
+     * Gets number of tiles.
+     *
+     * @return number of tiles
+     * */
+    int getTiles() {
+        return this.firstTile[this.firstTile.length - 1];
+    }
+
+    /**
+     * Computes sum of the elements of a range of tiles.
+     *
+     * @param from
+     *          first tile to sum (inclusive)
+     * @param to
+     *          last tile to sum (exclusive)
+     * @return sum of the tiles
+     * */
+    double sumTiles(final int from, final int to) {
+        if (from < 0 || to > this.getTiles() || from > to) {
+            throw new IndexOutOfBoundsException("Tiles [" + from + ", " + to + ") out of " + this.getTiles());
+        }
+        double res = 0;
+        int row = this.rowOf(from);
+        for (int tile = from; tile < to; row++) {
+            final int last = Math.min(to, this.firstTile[row + 1]);
+            if (tile < last) {
+                final long start = (long) (tile - this.firstTile[row]) * this.tileSize;
+                final long end = (long) (last - this.firstTile[row]) * this.tileSize;
+                res += this.view.sumRow(row, (int) start, (int) Math.min(this.view.getRowLength(row), end));
+                tile = last;
+            }
+        }
+        return res;
+    }
+
+    /*
+     * Finds the last row starting at or before the tile, which is never an
+     * empty one as long as the tile exists
+     */
+    private int rowOf(final int tile) {
+        int lo = 0;
+        int hi = this.firstTile.length - 2;
+        while (lo < hi) {
+            final int mid = (lo + hi + 1) >>> 1;
+            if (this.firstTile[mid] <= tile) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+}
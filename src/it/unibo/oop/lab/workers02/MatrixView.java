@@ -0,0 +1,88 @@
+package it.unibo.oop.lab.workers02;
+
+import it.unibo.oop.lab.workers.SumKernels;
+
+/**
+ * A read-only view of the rows of a matrix. The view shares the rows of the
+ * matrix instead of copying them, so building it costs the same whatever the
+ * size of the matrix; in exchange, the matrix must not be modified while the
+ * view is in use.
+ * */
+final class MatrixView {
+
+    private final double[][] matrix;
+
+    /**
+     * Builds a view of the whole matrix.
+     *
+     * @param matrix
+     *          matrix to be viewed, which is not copied
+     * */
+    MatrixView(final double[][] matrix) {
+        this.matrix = matrix;
+    }
+
+    /**
+     * Gets number of rows of the view.
+     *
+     * @return number of rows
+     * */
+    int getRows() {
+        return this.matrix.length;
+    }
+
+    /**
+     * Computes sum of the elements of a row.
+     *
+     * @param row
+     *          row of the view
+     * @return sum of the row
+     * */
+    double sumRow(final int row) {
+        return SumKernels.sum(this.matrix[row]);
+    }
+
+    /**
+     * Gets number of elements of a row.
+     *
+     * @param row
+     *          row of the view
+     * @return length of the row
+     * */
+    int getRowLength(final int row) {
+        return this.matrix[row].length;
+    }
+
+    /**
+     * Computes sum of a range of elements of a row.
+     *
+     * @param row
+     *          row of the view
+     * @param from
+     *          first element to sum (inclusive)
+     * @param to
+     *          last element to sum (exclusive)
+     * @return sum of the elements in the range
+     * */
+    double sumRow(final int row, final int from, final int to) {
+        return SumKernels.sum(this.matrix[row], from, to);
+    }
+
+    /**
+     * Computes sum of the elements of a range of rows.
+     *
+     * @param from
+     *          first row of the view to sum (inclusive)
+     * @param to
+     *          last row of the view to sum (exclusive)
+     * @return sum of the rows
+     * */
+    double sumRows(final int from, final int to) {
+        double res = 0;
+        for (int i = from; i < to; i++) {
+            res += this.sumRow(i);
+        }
+        return res;
+    }
+
+}
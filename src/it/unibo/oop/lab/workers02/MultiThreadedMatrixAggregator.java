@@ -0,0 +1,139 @@
+package it.unibo.oop.lab.workers02;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import it.unibo.oop.lab.workers.Partition;
+import it.unibo.oop.lab.workers.Partitioner;
+
+/**
+ * Computes row sums, column sums and grand total of a matrix in a single
+ * multi thread pass.
+ *
+ * Rows are split among workers. Every worker writes the sums of its own rows,
+ * and adds its elements to a private array of column sums, which is scanned
+ * alongside every row; private column sums are merged once the workers are
+ * done, so that no two workers ever write to the same column accumulator.
+ * */
+public class MultiThreadedMatrixAggregator {
+
+    private final int nThreads;
+    private final Partitioner partitioner;
+
+    /**
+     * Builds new {@link MultiThreadedMatrixAggregator}.
+     *
+     * @param nThreads
+     *              number of threads to be used
+     * */
+    public MultiThreadedMatrixAggregator(final int nThreads) {
+        this(nThreads, Partitioner.balanced());
+    }
+
+    /**
+     * Builds new {@link MultiThreadedMatrixAggregator} splitting the rows among
+     * the workers with the given strategy.
+     *
+     * @param nThreads
+     *              number of threads to be used
+     * @param partitioner
+     *              strategy assigning rows to workers
+     * */
+    public MultiThreadedMatrixAggregator(final int nThreads, final Partitioner partitioner) {
+        this.nThreads = nThreads;
+        this.partitioner = Objects.requireNonNull(partitioner);
+    }
+
+    private static class Worker extends Thread {
+
+        private final double[][] matrix;
+        private final Partition partition;
+        private final int index;
+        private final double[] rowSums;
+        private final double[] columnSums;
+        private double total;
+
+        /**
+         * Builds new {@link Worker}.
+         *
+         * @param matrix
+         *          matrix to aggregate
+         * @param partition
+         *          assignment of rows to workers
+         * @param index
+         *          index of current worker within the partition
+         * @param rowSums
+         *          row sums shared by every worker, each writing its own rows
+         * @param columns
+         *          number of columns of the matrix
+         * */
+        Worker(final double[][] matrix, final Partition partition, final int index,
+                final double[] rowSums, final int columns) {
+            super();
+            this.matrix = matrix;
+            this.partition = partition;
+            this.index = index;
+            this.rowSums = rowSums;
+            this.columnSums = new double[columns];
+        }
+
+        @Override
+        public void run() {
+            this.partition.forEachRange(this.index, (from, to) -> {
+                for (int r = from; r < to; r++) {
+                    final double[] row = this.matrix[r];
+                    double sum = 0;
+                    for (int c = 0; c < row.length; c++) {
+                        sum += row[c];
+                        this.columnSums[c] += row[c];
+                    }
+                    this.rowSums[r] = sum;
+                    this.total += sum;
+                }
+            });
+        }
+
+    }
+
+    /**
+     * Aggregates the matrix.
+     *
+     * @param matrix
+     *          an arbitrary-sized matrix, possibly jagged
+     * @return its row sums, column sums and total
+     * */
+    public MatrixAggregates aggregate(final double[][] matrix) {
+        int columns = 0;
+        for (final double[] row : matrix) {
+            columns = Math.max(columns, row.length);
+        }
+        final double[] rowSums = new double[matrix.length];
+        final Partition partition = this.partitioner.split(matrix.length, this.nThreads);
+        final List<Worker> workers = new ArrayList<>(partition.getWorkers());
+        for (int i = 0; i < partition.getWorkers(); i++) {
+            workers.add(new Worker(matrix, partition, i, rowSums, columns));
+        }
+        for (final Worker w : workers) {
+            w.start();
+        }
+        /*
+         * Wait for them, merging their column sums
+         */
+        final double[] columnSums = new double[columns];
+        double total = 0;
+        for (final Worker w : workers) {
+            try {
+                w.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            total += w.total;
+            for (int c = 0; c < columns; c++) {
+                columnSums[c] += w.columnSums[c];
+            }
+        }
+        return new MatrixAggregates(rowSums, columnSums, total);
+    }
+
+}
@@ -0,0 +1,160 @@
+package it.unibo.oop.lab.workers02;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unibo.oop.lab.workers.MappedRanges;
+import it.unibo.oop.lab.workers.SumKernels;
+
+/**
+ * Sums {@link MatrixFile}s without loading them on the heap: the elements are
+ * split among workers by contiguous ranges, whatever the shape of the matrix,
+ * and every worker memory-maps its own range through {@link MappedRanges} and
+ * reads it in place, with no copy on the heap. A single mapping cannot exceed
+ * 2 GB, so larger ranges are mapped and summed one segment at a time; the
+ * matrix can thus be larger than the heap, and even than physical memory.
+ * */
+public class MultiThreadedMatrixFileSum {
+
+    private final int nThreads;
+    private final long segmentSize;
+
+    /**
+     * Builds new {@link MultiThreadedMatrixFileSum}.
+     *
+     * @param nThreads
+     *              number of threads to be used during matrix sum
+     * */
+    public MultiThreadedMatrixFileSum(final int nThreads) {
+        this(nThreads, MappedRanges.MAX_SEGMENT);
+    }
+
+    /**
+     * Builds new {@link MultiThreadedMatrixFileSum}.
+     *
+     * @param nThreads
+     *              number of threads to be used during matrix sum
+     * @param segmentSize
+     *              max number of bytes mapped at once by a worker, rounded down
+     *              to a multiple of 8 so that elements never straddle two segments
+     * */
+    MultiThreadedMatrixFileSum(final int nThreads, final long segmentSize) {
+        if (nThreads <= 0) {
+            throw new IllegalArgumentException("The no. of threads must be positive, got " + nThreads);
+        }
+        this.nThreads = nThreads;
+        this.segmentSize = MappedRanges.checkSegmentSize(segmentSize);
+    }
+
+    private static class Worker extends Thread {
+
+        private final MappedRanges ranges;
+        private final int index;
+        private final MatrixFile.DataType type;
+        private double res;
+        private Throwable failure;
+
+        /**
+         * Builds new {@link Worker}.
+         *
+         * @param ranges
+         *          ranges of the file to sum
+         * @param index
+         *          index of current worker among the ranges
+         * @param type
+         *          type of the elements
+         * */
+        Worker(final MappedRanges ranges, final int index, final MatrixFile.DataType type) {
+            super();
+            this.ranges = ranges;
+            this.index = index;
+            this.type = type;
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.ranges.forEachSegment(this.index, segment -> this.res += this.type == MatrixFile.DataType.FLOAT32
+                        ? sumFloats(segment.asFloatBuffer()) : sumDoubles(segment.asDoubleBuffer()));
+            } catch (IOException | RuntimeException | Error e) {
+                /*
+                 * Left to the caller, which would otherwise get a partial sum
+                 */
+                this.failure = e;
+            }
+        }
+
+        private double sumDoubles(final DoubleBuffer values) {
+            return SumKernels.sum(values, 0, values.limit());
+        }
+
+        private double sumFloats(final FloatBuffer values) {
+            double sum = 0;
+            for (int i = 0; i < values.limit(); i++) {
+                sum += values.get(i);
+            }
+            return sum;
+        }
+
+        /**
+         * Gets sum of the elements in the range of current worker.
+         *
+         * @return sum
+         * @throws IOException
+         *          if the range could not be mapped
+         * */
+        public double getResult() throws IOException {
+            if (this.failure instanceof IOException) {
+                throw (IOException) this.failure;
+            } else if (this.failure instanceof Error) {
+                throw (Error) this.failure;
+            } else if (this.failure != null) {
+                throw (RuntimeException) this.failure;
+            }
+            return this.res;
+        }
+
+    }
+
+    /**
+     * Sums a matrix file.
+     *
+     * @param matrix
+     *          a matrix stored in a file
+     * @return sum of its elements
+     * @throws IOException
+     *          if the file cannot be read
+     * */
+    public double sum(final MatrixFile matrix) throws IOException {
+        try (FileChannel channel = FileChannel.open(matrix.getPath(), StandardOpenOption.READ)) {
+            /*
+             * Build a list of workers, each one on a range of whole elements
+             */
+            final MappedRanges ranges = new MappedRanges(channel, MatrixFile.HEADER_BYTES,
+                    matrix.getType().getBytes(), matrix.size(), this.nThreads, this.segmentSize);
+            final List<Worker> workers = new ArrayList<>(ranges.getWorkers());
+            for (int i = 0; i < ranges.getWorkers(); i++) {
+                workers.add(new Worker(ranges, i, matrix.getType()));
+            }
+            for (final Worker w : workers) {
+                w.start();
+            }
+            double sum = 0;
+            for (final Worker w : workers) {
+                try {
+                    w.join();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                sum += w.getResult();
+            }
+            return sum;
+        }
+    }
+
+}
@@ -1,14 +1,67 @@
 package it.unibo.oop.lab.workers02;
 
-import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import it.unibo.oop.lab.workers.CancellationToken;
+import it.unibo.oop.lab.workers.PartialResult;
+import it.unibo.oop.lab.workers.Partition;
+import it.unibo.oop.lab.workers.Partitioner;
+
 /**
  * Computes multi thread matrix sum.
+ *
+ * Sums can be bounded by a timeout or cancelled through a
+ * {@link CancellationToken}: workers check for cancellation before every row
+ * (or block of tiles), and stop leaving a partial result behind.
+ *
+ * {@link FlatMatrix} instances are split among workers by contiguous ranges of
+ * elements rather than by rows, and {@link CsrMatrix} instances by contiguous
+ * ranges of non-zero elements, so that workers get the same share of them
+ * however they are spread among the rows.
+ *
+ * By default, every row of a {@code double[][]} is summed by a single worker,
+ * which leaves workers idle when the matrix has fewer rows than workers, and
+ * unbalanced when a few rows are much longer than the others. Summers built
+ * with a tile size split rows in tiles instead, and the workers share the
+ * tiles: with a balanced partitioner every worker gets the same number of
+ * elements, give or take a tile; with a dynamic one they keep claiming tiles
+ * until the matrix is over. Timeouts and cancellation then report the number
+ * of tiles summed, rather than rows.
  * */
 public class MultiThreadedSumMatrix implements SumMatrix {
 
+    /*
+     * Starts a brand new platform thread for every worker
+     */
+    private static final Executor THREAD_PER_WORKER = task -> new Thread(task).start();
+
+    /**
+     * Number of elements of a flat matrix summed between two checks for cancellation.
+     * */
+    private static final int BLOCK = 1 << 16;
+
+    /**
+     * A tile size filling half of a typical 32 KiB L1 data cache.
+     * */
+    public static final int L1_TILE = 16 * 1024 / Double.BYTES;
+
+    /*
+     * Tile size of summers splitting by rows
+     */
+    private static final int ROWS = 0;
+
     private final int nThreads;
+    private final int tileSize;
+    private final Partitioner partitioner;
+    private final Executor executor;
 
     /**
      * Builds new {@link MultiThreadedSumMatrix}.
@@ -17,48 +70,197 @@ public class MultiThreadedSumMatrix implements SumMatrix {
      *              number of threads to be used during matrix sum
      * */
     public MultiThreadedSumMatrix(final int nThreads) {
+        this(nThreads, THREAD_PER_WORKER);
+    }
+
+    /**
+     * Builds new {@link MultiThreadedSumMatrix} running its workers on the given
+     * executor. For instance, an executor starting a virtual thread per task lets
+     * many concurrent callers fan out without each of them occupying as many
+     * platform threads.
+     *
+     * @param nThreads
+     *              number of workers to be used during matrix sum
+     * @param executor
+     *              executor running the workers
+     * */
+    public MultiThreadedSumMatrix(final int nThreads, final Executor executor) {
+        this(nThreads, Partitioner.balanced(), executor);
+    }
+
+    /**
+     * Builds new {@link MultiThreadedSumMatrix} splitting the rows among the
+     * workers with the given strategy.
+     *
+     * @param nThreads
+     *              number of threads to be used during matrix sum
+     * @param partitioner
+     *              strategy assigning rows to workers
+     * */
+    public MultiThreadedSumMatrix(final int nThreads, final Partitioner partitioner) {
+        this(nThreads, partitioner, THREAD_PER_WORKER);
+    }
+
+    /**
+     * Builds new {@link MultiThreadedSumMatrix}.
+     *
+     * @param nThreads
+     *              number of workers to be used during matrix sum
+     * @param partitioner
+     *              strategy assigning rows to workers
+     * @param executor
+     *              executor running the workers
+     * */
+    public MultiThreadedSumMatrix(final int nThreads, final Partitioner partitioner, final Executor executor) {
         this.nThreads = nThreads;
+        this.tileSize = ROWS;
+        this.partitioner = Objects.requireNonNull(partitioner);
+        this.executor = Objects.requireNonNull(executor);
     }
 
-    private class Worker extends Thread {
+    /**
+     * Builds new {@link MultiThreadedSumMatrix} splitting rows in tiles, and the
+     * tiles among the workers so that each one gets the same number of elements.
+     *
+     * @param nThreads
+     *              number of threads to be used during matrix sum
+     * @param tileSize
+     *              maximum number of elements of a tile, such as {@link #L1_TILE}
+     * */
+    public MultiThreadedSumMatrix(final int nThreads, final int tileSize) {
+        this(nThreads, tileSize, Partitioner.balanced(), THREAD_PER_WORKER);
+    }
+
+    /**
+     * Builds new {@link MultiThreadedSumMatrix} splitting rows in tiles.
+     *
+     * @param nThreads
+     *              number of workers to be used during matrix sum
+     * @param tileSize
+     *              maximum number of elements of a tile, such as {@link #L1_TILE}
+     * @param partitioner
+     *              strategy assigning tiles to workers
+     * @param executor
+     *              executor running the workers
+     * */
+    public MultiThreadedSumMatrix(final int nThreads, final int tileSize, final Partitioner partitioner,
+            final Executor executor) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("The tile size must be positive, got " + tileSize);
+        }
+        this.nThreads = nThreads;
+        this.tileSize = tileSize;
+        this.partitioner = Objects.requireNonNull(partitioner);
+        this.executor = Objects.requireNonNull(executor);
+    }
 
-        private final double[][] matrix;
-        private final int startRow;
-        private final int nRows;
+    private class Worker implements Runnable {
+
+        private final RangeSum source;
+        private final Partition partition;
+        private final int index;
+        private final CancellationToken token;
+        private final int block;
+        private int covered;
         private double res;
+        private Throwable failure;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final CompletableFuture<Double> completion = new CompletableFuture<>();
 
         /**
          * Builds new {@link Worker}.
          *
-         * @param matrix
-         *          matrix to be summed
-         * @param startRow
-         *          start row for current thread
-         * @param nRows
-         *          n rows to sum for current thread (starting from startRow)
+         * @param source
+         *          positions to be summed, shared by every worker
+         * @param partition
+         *          assignment of positions to workers
+         * @param index
+         *          index of current worker within the partition
+         * @param token
+         *          token telling when to stop
+         * @param block
+         *          number of positions summed between two checks of the token
          * */
-        Worker(final double[][] matrix, final int startRow, final int nRows) {
-            super();
-            this.matrix = Arrays.copyOf(matrix, matrix.length);
-            this.startRow = startRow;
-            this.nRows = nRows;
+        Worker(final RangeSum source, final Partition partition, final int index,
+                final CancellationToken token, final int block) {
+            this.source = source;
+            this.partition = partition;
+            this.index = index;
+            this.token = token;
+            this.block = block;
             this.res = 0.0;
         }
 
         /**
-         * Computes sum of matrix elements using defined start/end rows range.
+         * Computes sum of the position ranges assigned to current worker.
          * */
         @Override
         public void run() {
-            for (int i = this.startRow; i < this.matrix.length && i < this.nRows + this.startRow; i++) {
-                for (final double x : this.matrix[i]) {
-                    this.res += x;
+            try {
+                this.partition.forEachRange(this.index, (from, to) -> {
+                    for (int i = from; i < to && !this.token.isCancelled(); i += Math.min(this.block, to - i)) {
+                        final int end = i + Math.min(this.block, to - i);
+                        this.res += this.source.sum(i, end);
+                        this.covered += end - i;
+                    }
+                });
+                this.completion.complete(this.res);
+            } catch (RuntimeException | Error e) {
+                /*
+                 * Left to the caller, which would otherwise report an interruption
+                 */
+                this.failure = e;
+                this.completion.completeExceptionally(e);
+            } finally {
+                this.done.countDown();
+            }
+        }
+
+        /**
+         * Waits for this worker to finish, for a limited time.
+         *
+         * @param timeoutNanos
+         *          maximum time to wait
+         * @return true if the worker is done
+         * @throws InterruptedException
+         *          if the calling thread is interrupted while waiting
+         * */
+        public boolean join(final long timeoutNanos) throws InterruptedException {
+            return this.done.await(timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Waits for this worker to finish, no matter what.
+         * */
+        public void joinUninterruptibly() {
+            boolean isDead = false;
+            boolean interrupted = false;
+            while (!isDead) {
+                try {
+                    this.done.await();
+                    isDead = true;
+                } catch (InterruptedException e) {
+                    interrupted = true;
                 }
             }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Rethrows whatever made this worker fail, once it is done.
+         * */
+        public void rethrowFailure() {
+            if (this.failure instanceof Error) {
+                throw (Error) this.failure;
+            } else if (this.failure != null) {
+                throw (RuntimeException) this.failure;
+            }
         }
 
         /**
-         * Gets sum of the matrix elements from a certain start, end rows.
+         * Gets sum of the matrix elements in the positions of current worker.
          *
          * @return sum
          * */
@@ -66,6 +268,24 @@ public class MultiThreadedSumMatrix implements SumMatrix {
             return this.res;
         }
 
+        /**
+         * Gets a future completed with the result of current worker.
+         *
+         * @return future result
+         * */
+        public CompletableFuture<Double> getCompletion() {
+            return this.completion;
+        }
+
+        /**
+         * Gets number of positions summed by current worker.
+         *
+         * @return number of positions
+         * */
+        public int getCovered() {
+            return this.covered;
+        }
+
     }
 
     /**
@@ -73,28 +293,146 @@ public class MultiThreadedSumMatrix implements SumMatrix {
      * */
     @Override
     public double sum(final double[][] matrix) {
+        return this.complete(this.sum(matrix, new CancellationToken(), Long.MAX_VALUE),
+                this.tileSize == ROWS ? "rows" : "tiles");
+    }
 
-        final int size = matrix.length / this.nThreads + matrix.length % this.nThreads;
+    /**
+     * {@inheritDoc}
+     *
+     * Workers get contiguous ranges of elements, whatever the shape of the matrix.
+     * */
+    @Override
+    public double sum(final FlatMatrix matrix) {
+        return this.complete(this.sum(matrix.size(), matrix::sumElements, BLOCK,
+                new CancellationToken(), Long.MAX_VALUE), "elements");
+    }
 
-        return IntStream.iterate(0, start -> start + size)
-                        .limit(nThreads)
-                        .mapToObj(start -> new Worker(matrix, start, size))
-                        .peek(Worker::start)
-                        .peek(MultiThreadedSumMatrix::joinThread)
-                        .mapToDouble(Worker::getResult)
-                        .sum();
+    /**
+     * {@inheritDoc}
+     *
+     * Workers get contiguous ranges of non-zero elements, whatever the rows they
+     * belong to.
+     * */
+    @Override
+    public double sum(final CsrMatrix matrix) {
+        return this.complete(this.sum(matrix.getNonZeros(), matrix::sumNonZeros, BLOCK,
+                new CancellationToken(), Long.MAX_VALUE), "non-zero elements");
     }
 
-    private static void joinThread(final Thread target) {
-        boolean isDead = false;
-        while (!isDead) {
-            try {
-                target.join();
-                isDead = true;
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+    private double complete(final PartialResult<Double> result, final String positions) {
+        if (!result.isComplete()) {
+            throw new IllegalStateException("Interrupted after summing " + result.getCovered()
+                    + " " + positions + " out of " + result.getTotal());
+        }
+        return result.getValue();
+    }
+
+    /**
+     * Sums the matrix, giving up when the timeout expires or when the calling
+     * thread is interrupted (in which case its interrupted status is kept).
+     *
+     * @param matrix
+     *          an arbitrary-sized matrix
+     * @param timeout
+     *          maximum time to wait
+     * @param unit
+     *          time unit of the timeout
+     * @return sum of its elements, or of the rows (or tiles) summed before giving up
+     * */
+    public PartialResult<Double> sum(final double[][] matrix, final long timeout, final TimeUnit unit) {
+        return this.sum(matrix, new CancellationToken(), unit.toNanos(timeout));
+    }
+
+    /**
+     * Sums the matrix, giving up when the token is cancelled or when the calling
+     * thread is interrupted (in which case its interrupted status is kept).
+     *
+     * @param matrix
+     *          an arbitrary-sized matrix
+     * @param token
+     *          token which may be cancelled from another thread
+     * @return sum of its elements, or of the rows (or tiles) summed before giving up
+     * */
+    public PartialResult<Double> sum(final double[][] matrix, final CancellationToken token) {
+        return this.sum(matrix, token, Long.MAX_VALUE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Every worker is started before returning, and the result is combined by
+     * the thread of the last worker to finish. Cancelling the returned future
+     * stops the workers.
+     * */
+    @Override
+    public CompletableFuture<Double> sumAsync(final double[][] matrix) {
+        final CancellationToken token = new CancellationToken();
+        final MatrixView view = new MatrixView(matrix);
+        final List<Worker> workers;
+        if (this.tileSize == ROWS) {
+            workers = this.start(view.getRows(), view::sumRows, 1, token);
+        } else {
+            final MatrixTiles tiles = new MatrixTiles(view, this.tileSize);
+            workers = this.start(tiles.getTiles(), tiles::sumTiles, this.tilesPerBlock(), token);
+        }
+        final CompletableFuture<Double> result = CompletableFuture
+                .allOf(workers.stream().map(Worker::getCompletion).toArray(CompletableFuture[]::new))
+                .thenApply(done -> workers.stream().mapToDouble(Worker::getResult).sum());
+        result.whenComplete((sum, error) -> {
+            if (error instanceof CancellationException) {
+                token.cancel();
+            }
+        });
+        return result;
+    }
+
+    private List<Worker> start(final int length, final RangeSum source, final int block,
+            final CancellationToken token) {
+        final Partition partition = this.partitioner.split(length, this.nThreads);
+        return IntStream.range(0, partition.getWorkers())
+                        .mapToObj(i -> new Worker(source, partition, i, token, block))
+                        .peek(this.executor::execute)
+                        .collect(Collectors.toList());
+    }
+
+    private PartialResult<Double> sum(final double[][] matrix, final CancellationToken token, final long timeoutNanos) {
+        final MatrixView view = new MatrixView(matrix);
+        if (this.tileSize == ROWS) {
+            return this.sum(view.getRows(), view::sumRows, 1, token, timeoutNanos);
+        }
+        final MatrixTiles tiles = new MatrixTiles(view, this.tileSize);
+        return this.sum(tiles.getTiles(), tiles::sumTiles, this.tilesPerBlock(), token, timeoutNanos);
+    }
+
+    private int tilesPerBlock() {
+        return Math.max(1, BLOCK / this.tileSize);
+    }
+
+    private PartialResult<Double> sum(final int length, final RangeSum source, final int block,
+            final CancellationToken token, final long timeoutNanos) {
+        final long start = System.nanoTime();
+        /*
+         * Start every worker, then join them until the deadline. Late workers are
+         * stopped, and waited for until they acknowledge
+         */
+        final List<Worker> workers = this.start(length, source, block, token);
+        try {
+            for (final Worker w : workers) {
+                if (!token.isCancelled() && !w.join(timeoutNanos - (System.nanoTime() - start))) {
+                    token.cancel();
+                }
             }
+        } catch (InterruptedException e) {
+            token.cancel();
+            Thread.currentThread().interrupt();
         }
+        workers.forEach(Worker::joinUninterruptibly);
+        workers.forEach(Worker::rethrowFailure);
+        return new PartialResult<>(
+                workers.stream().mapToDouble(Worker::getResult).sum(),
+                workers.stream().mapToInt(Worker::getCovered).sum(),
+                length);
     }
 
 }
@@ -0,0 +1,22 @@
+package it.unibo.oop.lab.workers02;
+
+/**
+ * A source of numbers which can be summed up one contiguous range of positions
+ * at a time, e.g. rows of a matrix or elements of a flat matrix. Several ranges
+ * of the same source may be summed concurrently.
+ * */
+@FunctionalInterface
+interface RangeSum {
+
+    /**
+     * Computes sum of a range of positions.
+     *
+     * @param from
+     *          first position to sum (inclusive)
+     * @param to
+     *          last position to sum (exclusive)
+     * @return sum of the elements in the given range
+     * */
+    double sum(int from, int to);
+
+}
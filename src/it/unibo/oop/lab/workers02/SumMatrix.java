@@ -1,5 +1,7 @@
 package it.unibo.oop.lab.workers02;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  *
  * An interfaced defining a sum for a matrix.
@@ -14,4 +16,38 @@ public interface SumMatrix {
      */
     double sum(double[][] matrix);
 
+    /**
+     * By default, the elements are summed by the calling thread.
+     *
+     * @param matrix
+     *            an arbitrary-sized dense matrix
+     * @return the sum of its elements
+     */
+    default double sum(final FlatMatrix matrix) {
+        return matrix.sumElements(0, matrix.size());
+    }
+
+    /**
+     * By default, the non-zero elements are summed by the calling thread.
+     *
+     * @param matrix
+     *            an arbitrary-sized sparse matrix
+     * @return the sum of its elements
+     */
+    default double sum(final CsrMatrix matrix) {
+        return matrix.sumNonZeros(0, matrix.getNonZeros());
+    }
+
+    /**
+     * Sums the matrix without blocking the caller, which can meanwhile do other
+     * work. By default, the sum runs on the common fork/join pool.
+     *
+     * @param matrix
+     *            an arbitrary-sized matrix
+     * @return a future completed with the sum of its elements
+     */
+    default CompletableFuture<Double> sumAsync(final double[][] matrix) {
+        return CompletableFuture.supplyAsync(() -> sum(matrix));
+    }
+
 }
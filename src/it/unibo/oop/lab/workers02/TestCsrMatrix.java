@@ -0,0 +1,93 @@
+package it.unibo.oop.lab.workers02;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import it.unibo.oop.lab.workers.Partitioner;
+
+/**
+ *
+ * Test for {@link CsrMatrix}.
+ *
+ */
+public class TestCsrMatrix {
+
+    private static final int SIZE = 5_000;
+    private static final double EXPECTED_DELTA = 0.01;
+    private static final String MSEC = " msec";
+
+    /**
+     * Sparse sums match dense ones, with non-zeros crowded in a few rows.
+     */
+    @Test
+    public void testBasic() {
+        final double[][] matrix = new double[SIZE][SIZE];
+        final Random random = new Random(1);
+        double sum = 0;
+        for (int r = 0; r < SIZE; r++) {
+            /*
+             * 1% of the elements in most rows, every element in the first ones
+             */
+            for (int c = 0; c < SIZE; c++) {
+                if (r < 10 || random.nextInt(100) == 0) {
+                    matrix[r][c] = c + 1;
+                    sum += c + 1;
+                }
+            }
+        }
+        final CsrMatrix sparse = CsrMatrix.fromDense(matrix);
+        assertEquals(SIZE, sparse.getRows());
+        assertEquals(SIZE, sparse.getCols());
+        assertEquals(matrix[7][3], sparse.get(7, 3), 0);
+        assertEquals(matrix[SIZE - 1][SIZE - 2], sparse.get(SIZE - 1, SIZE - 2), 0);
+        final SumMatrix sequential = m -> 0;
+        assertEquals(sum, sequential.sum(sparse), EXPECTED_DELTA);
+        for (final int threads: new int[] { 1, 2, 3, 8, 16, 32, 100 }) {
+            final SumMatrix summer = new MultiThreadedSumMatrix(threads);
+            long time = System.nanoTime();
+            assertEquals(sum, summer.sum(matrix), EXPECTED_DELTA);
+            time = System.nanoTime() - time;
+            long sparseTime = System.nanoTime();
+            assertEquals(sum, summer.sum(sparse), EXPECTED_DELTA);
+            sparseTime = System.nanoTime() - sparseTime;
+            assertEquals(sum, new MultiThreadedSumMatrix(threads, Partitioner.dynamic(1024)).sum(sparse),
+                    EXPECTED_DELTA);
+            System.out.println("Tried with " + threads + " thread" + (threads == 1 ? "" : "s") + ": "
+                    + TimeUnit.NANOSECONDS.toMillis(time) + MSEC + " dense, "
+                    + TimeUnit.NANOSECONDS.toMillis(sparseTime) + MSEC + " with "
+                    + sparse.getNonZeros() + " non-zeros");
+        }
+    }
+
+    /**
+     * Rows and elements of a small jagged matrix.
+     */
+    @Test
+    public void testJagged() {
+        final CsrMatrix sparse = CsrMatrix.fromDense(new double[][] { { 0, 2, 0 }, {}, { 0, 0, 0, 0, 5 }, { 1 } });
+        assertEquals(4, sparse.getRows());
+        assertEquals(5, sparse.getCols());
+        assertEquals(3, sparse.getNonZeros());
+        assertEquals(2, sparse.get(0, 1), 0);
+        assertEquals(0, sparse.get(0, 4), 0);
+        assertEquals(0, sparse.sumRow(1), 0);
+        assertEquals(5, sparse.sumRow(2), 0);
+        for (final int threads: new int[] { 1, 2, 4, 8 }) {
+            assertEquals(8, new MultiThreadedSumMatrix(threads).sum(sparse), 0);
+        }
+        assertEquals(0, new MultiThreadedSumMatrix(4).sum(CsrMatrix.fromDense(new double[0][])), 0);
+    }
+
+    /**
+     * Columns must increase within every row.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalid() {
+        new CsrMatrix(3, new double[] { 1, 2 }, new int[] { 2, 1 }, new int[] { 0, 2 });
+    }
+
+}
@@ -0,0 +1,108 @@
+package it.unibo.oop.lab.workers02;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ *
+ * Test for {@link IncrementalSumMatrix}.
+ *
+ */
+public class TestIncrementalSumMatrix {
+
+    private static final int SIZE = 5_000;
+    private static final int UPDATES = 100;
+    private static final double EXPECTED_DELTA = 0.01;
+    private static final String MSEC = " msec";
+
+    /**
+     * Sums after a few updates only recompute the rows they touched.
+     */
+    @Test
+    public void testUpdates() {
+        final double[][] matrix = new double[SIZE][SIZE];
+        for (final double[] d : matrix) {
+            for (int i = 0; i < SIZE; i++) {
+                d[i] = i;
+            }
+        }
+        final Random random = new Random(1);
+        for (final int threads: new int[] { 1, 2, 8, 32 }) {
+            final IncrementalSumMatrix incremental = new IncrementalSumMatrix(matrix, threads);
+            assertEquals(SIZE, incremental.getDirtyRows());
+            long time = System.nanoTime();
+            double expected = new MultiThreadedSumMatrix(threads).sum(matrix);
+            assertEquals(expected, incremental.sum(), EXPECTED_DELTA);
+            time = System.nanoTime() - time;
+            assertEquals(0, incremental.getDirtyRows());
+            long updateTime = System.nanoTime();
+            for (int u = 0; u < UPDATES; u++) {
+                final int row = random.nextInt(SIZE);
+                final int col = random.nextInt(SIZE);
+                final double value = random.nextInt(SIZE);
+                expected += value - incremental.get(row, col);
+                incremental.set(row, col, value);
+            }
+            assertEquals(expected, incremental.sum(), EXPECTED_DELTA);
+            updateTime = System.nanoTime() - updateTime;
+            assertEquals(expected, new MultiThreadedSumMatrix(threads).sum(matrix), EXPECTED_DELTA);
+            System.out.println("Tried with " + threads + " thread" + (threads == 1 ? "" : "s") + ": "
+                    + TimeUnit.NANOSECONDS.toMillis(time) + MSEC + " for the first sum, "
+                    + TimeUnit.NANOSECONDS.toMillis(updateTime) + MSEC + " after " + UPDATES + " updates");
+        }
+    }
+
+    /**
+     * Rows modified directly are recomputed once invalidated.
+     */
+    @Test
+    public void testInvalidate() {
+        final double[][] matrix = { { 1, 2 }, { 3 }, {} };
+        final IncrementalSumMatrix incremental = new IncrementalSumMatrix(matrix, 2);
+        assertEquals(3, incremental.sumRow(0), 0);
+        assertEquals(6, incremental.sum(), 0);
+        matrix[1][0] = 10;
+        assertEquals(6, incremental.sum(), 0);
+        incremental.invalidateRow(1);
+        assertEquals(1, incremental.getDirtyRows());
+        assertEquals(13, incremental.sum(), 0);
+        incremental.set(0, 1, 0);
+        assertEquals(1, incremental.sumRow(0), 0);
+        assertEquals(11, incremental.sum(), 0);
+    }
+
+    /**
+     * A row sum going through infinity does not spoil the later totals.
+     */
+    @Test
+    public void testOverflow() {
+        final double[][] matrix = { { Double.MAX_VALUE, Double.MAX_VALUE }, { 2 } };
+        final IncrementalSumMatrix incremental = new IncrementalSumMatrix(matrix, 1);
+        assertEquals(Double.POSITIVE_INFINITY, incremental.sum(), 0);
+        incremental.set(0, 0, 5);
+        incremental.set(0, 1, 0);
+        assertEquals(7, incremental.sum(), 0);
+    }
+
+    /**
+     * Digits absorbed by a huge row come back once the huge row is gone.
+     */
+    @Test
+    public void testCancellation() {
+        final double[][] matrix = { { 1e17 }, { 1 } };
+        final IncrementalSumMatrix incremental = new IncrementalSumMatrix(matrix, 1);
+        assertEquals(1e17, incremental.sum(), 0);
+        incremental.set(0, 0, 0);
+        assertEquals(1, incremental.sum(), 0);
+        incremental.set(0, 0, 1e17);
+        assertEquals(1e17, incremental.sumRow(0), 0);
+        incremental.set(0, 0, 0);
+        assertEquals(0, incremental.sumRow(0), 0);
+        assertEquals(1, incremental.sum(), 0);
+    }
+
+}
@@ -1,11 +1,28 @@
 package it.unibo.oop.lab.workers02;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
+import it.unibo.oop.lab.workers.AutoTuner;
+import it.unibo.oop.lab.workers.CancellationToken;
+import it.unibo.oop.lab.workers.PartialResult;
+import it.unibo.oop.lab.workers.Partitioner;
+
 /**
  *
  * TestMatrix for worker 2.
@@ -43,4 +60,294 @@ public class TestMatrix {
         }
     }
 
+    /**
+     * Workers can run on a caller-supplied executor, even one with fewer threads.
+     */
+    @Test
+    public void testExecutor() {
+        double sum = 0;
+        final double[][] matrix = new double[SIZE][SIZE];
+        for (double[] d : matrix) {
+            for (int i = 0; i < SIZE; i++) {
+                d[i] = i;
+                sum += i;
+            }
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (final int threads: new int[] { 1, 2, 3, 8, 16, 32, 100 }) {
+                assertEquals(sum, new MultiThreadedSumMatrix(threads, executor).sum(matrix), EXPECTED_DELTA);
+                assertEquals(sum, new MultiThreadedSumMatrix(threads, Runnable::run).sum(matrix), EXPECTED_DELTA);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Every partitioning strategy gives the same result.
+     */
+    @Test
+    public void testPartitioners() {
+        double sum = 0;
+        final double[][] matrix = new double[SIZE][SIZE];
+        for (double[] d : matrix) {
+            for (int i = 0; i < SIZE; i++) {
+                d[i] = i;
+                sum += i;
+            }
+        }
+        for (final Partitioner partitioner : new Partitioner[] {
+            Partitioner.balanced(), Partitioner.cacheAligned(Double.BYTES), Partitioner.dynamic(SIZE / 100) }) {
+            for (final int threads: new int[] { 1, 3, 32, 100 }) {
+                assertEquals(sum, new MultiThreadedSumMatrix(threads, partitioner).sum(matrix), EXPECTED_DELTA);
+            }
+        }
+    }
+
+    /**
+     * Sums giving up early report how many rows they covered.
+     */
+    @Test
+    public void testTimeout() {
+        final double[][] matrix = new double[SIZE][SIZE];
+        for (double[] d : matrix) {
+            for (int i = 0; i < SIZE; i++) {
+                d[i] = i;
+            }
+        }
+        final double rowSum = (double) SIZE * (SIZE - 1) / 2;
+        final PartialResult<Double> partial = new MultiThreadedSumMatrix(1, afterGivingUp(Thread.currentThread()))
+                .sum(matrix, 1, TimeUnit.MILLISECONDS);
+        assertFalse(partial.isComplete());
+        assertEquals(0, partial.getCovered());
+        assertEquals(0, partial.getValue(), 0);
+        final MultiThreadedSumMatrix summer = new MultiThreadedSumMatrix(1);
+        final PartialResult<Double> complete = summer.sum(matrix, 1, TimeUnit.HOURS);
+        assertTrue(complete.isComplete());
+        assertEquals(rowSum * SIZE, complete.getValue(), EXPECTED_DELTA);
+        final CancellationToken token = new CancellationToken();
+        token.cancel();
+        assertEquals(0, new MultiThreadedSumMatrix(8).sum(matrix, token).getCovered());
+    }
+
+    /**
+     * Asynchronous sums start every worker before returning, without waiting for any.
+     */
+    @Test
+    public void testAsync() {
+        final int rows = 100;
+        final double[][] matrix = new double[rows][rows];
+        double sum = 0;
+        for (double[] d : matrix) {
+            for (int i = 0; i < rows; i++) {
+                d[i] = i;
+                sum += i;
+            }
+        }
+        for (final int threads: new int[] { 1, 2, 3, 8, 16, 32, 100 }) {
+            final List<Runnable> submitted = new ArrayList<>();
+            final Executor executor = submitted::add;
+            final CompletableFuture<Double> future = new MultiThreadedSumMatrix(threads, executor).sumAsync(matrix);
+            assertEquals(threads, submitted.size());
+            assertFalse(future.isDone());
+            submitted.forEach(Runnable::run);
+            assertEquals(sum, future.join(), EXPECTED_DELTA);
+            assertEquals(sum, new MultiThreadedSumMatrix(threads).sumAsync(matrix).join(), EXPECTED_DELTA);
+        }
+    }
+
+    /**
+     * Tiles keep every worker busy on wide matrices, and balance jagged ones.
+     */
+    @Test
+    public void testTiles() {
+        final int rows = 4;
+        final double[][] wide = new double[rows][SIZE * SIZE / 50];
+        double sum = 0;
+        for (final double[] d : wide) {
+            for (int i = 0; i < d.length; i++) {
+                d[i] = i % SIZE;
+                sum += i % SIZE;
+            }
+        }
+        for (final int threads: new int[] { 1, 2, 3, 8, 16, 32, 100 }) {
+            final AtomicInteger started = new AtomicInteger();
+            final Executor counting = task -> {
+                started.incrementAndGet();
+                new Thread(task).start();
+            };
+            long time = System.nanoTime();
+            assertEquals(sum, new MultiThreadedSumMatrix(threads, Partitioner.balanced(), counting).sum(wide),
+                    EXPECTED_DELTA);
+            time = System.nanoTime() - time;
+            assertEquals(Math.min(rows, threads), started.getAndSet(0));
+            long tiledTime = System.nanoTime();
+            assertEquals(sum, new MultiThreadedSumMatrix(threads, MultiThreadedSumMatrix.L1_TILE,
+                    Partitioner.balanced(), counting).sum(wide), EXPECTED_DELTA);
+            tiledTime = System.nanoTime() - tiledTime;
+            assertEquals(threads, started.get());
+            System.out.println("Tried " + rows + " rows with " + threads + " thread" + (threads == 1 ? "" : "s") + ": "
+                    + TimeUnit.NANOSECONDS.toMillis(time) + MSEC + " by rows, "
+                    + TimeUnit.NANOSECONDS.toMillis(tiledTime) + MSEC + " by tiles");
+        }
+        /*
+         * A few long rows among many short or empty ones
+         */
+        final double[][] jagged = new double[SIZE][];
+        double jaggedSum = 0;
+        for (int r = 0; r < SIZE; r++) {
+            jagged[r] = new double[r % 1000 == 0 ? SIZE * 10 : r % 3];
+            for (int i = 0; i < jagged[r].length; i++) {
+                jagged[r][i] = r + i;
+                jaggedSum += r + i;
+            }
+        }
+        for (final Partitioner p: new Partitioner[] {
+            Partitioner.balanced(), Partitioner.cacheAligned(Double.BYTES), Partitioner.dynamic(4) }) {
+            for (final int tile: new int[] { 1, 7, MultiThreadedSumMatrix.L1_TILE, Integer.MAX_VALUE }) {
+                for (final int threads: new int[] { 1, 3, 16 }) {
+                    assertEquals(jaggedSum, new MultiThreadedSumMatrix(threads, tile, p, Runnable::run).sum(jagged),
+                            EXPECTED_DELTA);
+                }
+            }
+        }
+        assertEquals(0, new MultiThreadedSumMatrix(4, 8).sum(new double[0][]), 0);
+        assertEquals(0, new MultiThreadedSumMatrix(4, 8).sum(new double[3][0]), 0);
+    }
+
+    /**
+     * Auto-tuned sums of matrices of different shapes, while the tuner learns.
+     */
+    @Test
+    public void testAutoTuned() {
+        final AutoTuner tuner = new AutoTuner();
+        final SumMatrix summer = new AutoTunedSumMatrix(tuner);
+        for (final int rows: new int[] { 0, 1, 10, 1000, SIZE }) {
+            final double[][] matrix = new double[rows][SIZE / 10];
+            double sum = 0;
+            for (final double[] d : matrix) {
+                for (int i = 0; i < d.length; i++) {
+                    d[i] = i;
+                    sum += i;
+                }
+            }
+            long time = System.nanoTime();
+            for (int i = 0; i < 10; i++) {
+                assertEquals(sum, summer.sum(matrix), EXPECTED_DELTA);
+            }
+            time = System.nanoTime() - time;
+            System.out.println("Tried 10 sums of " + rows + " rows: " + TimeUnit.NANOSECONDS.toMillis(time) + MSEC);
+        }
+        System.out.println("Break-even: " + tuner.getBreakEven() + " elements");
+        final double[][] small = { { 1, 0, 2 }, { 0, 0, 3 } };
+        assertEquals(6, summer.sum(FlatMatrix.of(small)), 0);
+        assertEquals(6, summer.sum(CsrMatrix.fromDense(small)), 0);
+    }
+
+    /**
+     * Flat matrices are split by elements, also when rows are padded.
+     */
+    @Test
+    public void testFlat() {
+        final double[][] matrix = new double[SIZE / 4][SIZE];
+        double sum = 0;
+        for (final double[] d : matrix) {
+            for (int i = 0; i < SIZE; i++) {
+                d[i] = i;
+                sum += i;
+            }
+        }
+        final FlatMatrix flat = FlatMatrix.of(matrix);
+        final SumMatrix sequential = m -> 0;
+        assertEquals(sum, sequential.sum(flat), EXPECTED_DELTA);
+        for (final int threads: new int[] { 1, 2, 3, 8, 16, 32, 100 }) {
+            final SumMatrix summer = new MultiThreadedSumMatrix(threads);
+            long time = System.nanoTime();
+            assertEquals(sum, summer.sum(matrix), EXPECTED_DELTA);
+            time = System.nanoTime() - time;
+            long flatTime = System.nanoTime();
+            assertEquals(sum, summer.sum(flat), EXPECTED_DELTA);
+            flatTime = System.nanoTime() - flatTime;
+            assertEquals(sum, new MultiThreadedSumMatrix(threads, Partitioner.cacheAligned(Double.BYTES)).sum(flat),
+                    EXPECTED_DELTA);
+            System.out.println("Tried with " + threads + " thread" + (threads == 1 ? "" : "s") + ": "
+                    + TimeUnit.NANOSECONDS.toMillis(time) + MSEC + " by rows, "
+                    + TimeUnit.NANOSECONDS.toMillis(flatTime) + MSEC + " flat");
+        }
+        /*
+         * 3x2 matrix padded to rows of 4, padding filled with garbage
+         */
+        final FlatMatrix padded = new FlatMatrix(new double[] { 1, 2, -1, -1, 3, 4, -1, -1, 5, 6, -1, -1 }, 3, 2, 4);
+        assertEquals(6, padded.size());
+        assertEquals(4, padded.get(1, 1), 0);
+        for (final int threads: new int[] { 1, 2, 4, 8 }) {
+            assertEquals(21, new MultiThreadedSumMatrix(threads).sum(padded), 0);
+        }
+        assertEquals(2 + 3 + 4 + 5, padded.sumElements(1, 5), 0);
+    }
+
+    /**
+     * Workers share the rows of the matrix, so the memory allocated by a sum
+     * does not grow with the height of the matrix.
+     */
+    @Test
+    public void testNoCopies() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final int threads = 100;
+            final long small = allocatedPerSum((com.sun.management.ThreadMXBean) bean, threads, new double[threads][1]);
+            final long large = allocatedPerSum((com.sun.management.ThreadMXBean) bean, threads, new double[SIZE][1]);
+            System.out.println("Allocated per sum: " + small + " bytes with " + threads + " rows, "
+                    + large + " bytes with " + SIZE + " rows");
+            assertTrue(large - small < (long) SIZE * Integer.BYTES);
+        }
+    }
+
+    private static long allocatedPerSum(final com.sun.management.ThreadMXBean bean, final int threads,
+            final double[][] matrix) {
+        final SumMatrix summer = new MultiThreadedSumMatrix(threads);
+        final int calls = 100;
+        for (int i = 0; i < calls; i++) {
+            summer.sum(matrix);
+        }
+        final long before = bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < calls; i++) {
+            summer.sum(matrix);
+        }
+        return (bean.getThreadAllocatedBytes(Thread.currentThread().getId()) - before) / calls;
+    }
+
+    /**
+     * A failing worker makes the whole sum fail with its own exception.
+     */
+    @Test
+    public void testFailure() {
+        final double[][] matrix = new double[SIZE][];
+        for (int i = 0; i < SIZE - 1; i++) {
+            matrix[i] = new double[] { i };
+        }
+        for (final int threads: new int[] { 1, 2, 3, 8 }) {
+            try {
+                new MultiThreadedSumMatrix(threads).sum(matrix);
+                fail("A missing row was summed with " + threads + " thread");
+            } catch (NullPointerException e) {
+                System.out.println("Failed as expected with " + threads + " thread: " + e);
+            }
+        }
+    }
+
+    /*
+     * Runs every worker only once the caller waits for it with no deadline, that
+     * is after the caller gave up and cancelled the sum, whatever the timing
+     */
+    private static Executor afterGivingUp(final Thread caller) {
+        return task -> new Thread(() -> {
+            while (caller.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+            task.run();
+        }).start();
+    }
+
 }
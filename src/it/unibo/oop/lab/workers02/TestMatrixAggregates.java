@@ -0,0 +1,76 @@
+package it.unibo.oop.lab.workers02;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import it.unibo.oop.lab.workers.Partitioner;
+
+/**
+ *
+ * Test for {@link MultiThreadedMatrixAggregator}.
+ *
+ */
+public class TestMatrixAggregates {
+
+    private static final int SIZE = 5_000;
+    private static final double EXPECTED_DELTA = 0.01;
+    private static final String MSEC = " msec";
+
+    /**
+     * Row sums, column sums and total at once, with different numbers of threads.
+     */
+    @Test
+    public void testBasic() {
+        final double[][] matrix = new double[SIZE][SIZE];
+        final double[] rowSums = new double[SIZE];
+        final double[] columnSums = new double[SIZE];
+        double total = 0;
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                matrix[r][c] = r % 10 + c;
+                rowSums[r] += matrix[r][c];
+                columnSums[c] += matrix[r][c];
+                total += matrix[r][c];
+            }
+        }
+        long time;
+        for (final int threads: new int[] { 1, 2, 3, 8, 16, 32, 100 }) {
+            time = System.nanoTime();
+            final MatrixAggregates aggregates = new MultiThreadedMatrixAggregator(threads).aggregate(matrix);
+            time = System.nanoTime() - time;
+            System.out.println("Tried with " + threads + " thread"
+                    + (threads == 1 ? "" : "s") + ": "
+                    + TimeUnit.NANOSECONDS.toMillis(time) + MSEC);
+            assertArrayEquals(rowSums, aggregates.getRowSums(), EXPECTED_DELTA);
+            assertArrayEquals(columnSums, aggregates.getColumnSums(), EXPECTED_DELTA);
+            assertEquals(total, aggregates.getTotal(), EXPECTED_DELTA);
+            assertEquals(total, new MultiThreadedSumMatrix(threads).sum(matrix), EXPECTED_DELTA);
+        }
+    }
+
+    /**
+     * Jagged rows contribute to the columns they have.
+     */
+    @Test
+    public void testJagged() {
+        final double[][] matrix = { { 1, 2, 3 }, {}, { 4 }, { 5, 6 } };
+        for (final Partitioner p: new Partitioner[] { Partitioner.balanced(), Partitioner.dynamic(1) }) {
+            for (final int threads: new int[] { 1, 2, 4, 8 }) {
+                final MatrixAggregates aggregates = new MultiThreadedMatrixAggregator(threads, p).aggregate(matrix);
+                assertEquals(4, aggregates.getRows());
+                assertEquals(3, aggregates.getColumns());
+                assertArrayEquals(new double[] { 6, 0, 4, 11 }, aggregates.getRowSums(), 0);
+                assertArrayEquals(new double[] { 10, 8, 3 }, aggregates.getColumnSums(), 0);
+                assertEquals(21, aggregates.getTotal(), 0);
+            }
+        }
+        final MatrixAggregates empty = new MultiThreadedMatrixAggregator(4).aggregate(new double[0][]);
+        assertEquals(0, empty.getColumns());
+        assertEquals(0, empty.getTotal(), 0);
+    }
+
+}
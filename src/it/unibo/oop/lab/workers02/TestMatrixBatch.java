@@ -0,0 +1,96 @@
+package it.unibo.oop.lab.workers02;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ *
+ * Test for the fork/join and batch sums of worker 2.
+ *
+ */
+public class TestMatrixBatch {
+
+    private static final int MATRICES = 5_000;
+    private static final int SMALL = 8;
+    private static final int LARGE = 2_000;
+    /*
+     * One matrix out of this many is large, the others are small
+     */
+    private static final int LARGE_EVERY = 2_500;
+    private static final double EXPECTED_DELTA = 0.01;
+    private static final String MSEC = " msec";
+
+    /**
+     * Many small matrices and a few large ones, in a single batch.
+     */
+    @Test
+    public void testBatch() {
+        final List<double[][]> matrices = new ArrayList<>(MATRICES);
+        final double[] expected = new double[MATRICES];
+        for (int m = 0; m < MATRICES; m++) {
+            final int size = m % LARGE_EVERY == 0 ? LARGE : SMALL;
+            final double[][] matrix = new double[size][size];
+            for (final double[] d : matrix) {
+                for (int i = 0; i < size; i++) {
+                    d[i] = m + i;
+                    expected[m] += m + i;
+                }
+            }
+            matrices.add(matrix);
+        }
+        for (final int threads: new int[] { 1, 2, 4, 8 }) {
+            final ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                final ForkJoinSumMatrix summer = new ForkJoinSumMatrix(pool, ForkJoinSumMatrix.DEFAULT_THRESHOLD);
+                long time = System.nanoTime();
+                assertArrayEquals(expected, summer.sumAll(matrices), EXPECTED_DELTA);
+                time = System.nanoTime() - time;
+                System.out.println("Batch on " + threads + " thread" + (threads == 1 ? "" : "s") + ": "
+                        + TimeUnit.NANOSECONDS.toMillis(time) + MSEC);
+                assertEquals(expected[0], summer.sum(matrices.get(0)), EXPECTED_DELTA);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        assertArrayEquals(new double[0], new ForkJoinSumMatrix().sumAll(List.of()), 0);
+    }
+
+    /**
+     * Wide and jagged matrices are split within their rows.
+     */
+    @Test
+    public void testShapes() {
+        final double[][] wide = new double[2][LARGE * LARGE / 2];
+        final double[][] jagged = new double[LARGE][];
+        double wideSum = 0;
+        double jaggedSum = 0;
+        for (final double[] d : wide) {
+            for (int i = 0; i < d.length; i++) {
+                d[i] = i % LARGE;
+                wideSum += i % LARGE;
+            }
+        }
+        for (int r = 0; r < LARGE; r++) {
+            jagged[r] = new double[r % 100 == 0 ? LARGE * 10 : r % 3];
+            for (int i = 0; i < jagged[r].length; i++) {
+                jagged[r][i] = r + i;
+                jaggedSum += r + i;
+            }
+        }
+        for (final int threshold: new int[] { 1, 1000, ForkJoinSumMatrix.DEFAULT_THRESHOLD, Integer.MAX_VALUE }) {
+            final ForkJoinSumMatrix summer = new ForkJoinSumMatrix(threshold);
+            assertEquals(wideSum, summer.sum(wide), EXPECTED_DELTA);
+            assertEquals(jaggedSum, summer.sum(jagged), EXPECTED_DELTA);
+            assertArrayEquals(new double[] { wideSum, 0, jaggedSum },
+                    summer.sumAll(List.of(wide, new double[0][], jagged)), EXPECTED_DELTA);
+        }
+    }
+
+}
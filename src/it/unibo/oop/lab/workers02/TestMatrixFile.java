@@ -0,0 +1,127 @@
+package it.unibo.oop.lab.workers02;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+/**
+ *
+ * Test for {@link MatrixFile} and {@link MultiThreadedMatrixFileSum}.
+ *
+ */
+public class TestMatrixFile {
+
+    private static final int ROWS = 3_000;
+    private static final int COLS = 1_001;
+    private static final long SMALL_SEGMENT = 100_003;
+    private static final double EXPECTED_DELTA = 0.01;
+    private static final String MSEC = " msec";
+
+    /**
+     * Sums files of floats and doubles, also splitting ranges in several segments.
+     *
+     * @throws IOException
+     *             if the temporary files cannot be written
+     */
+    @Test
+    public void testBasic() throws IOException {
+        final double[][] matrix = new double[ROWS][COLS];
+        double sum = 0;
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < COLS; c++) {
+                matrix[r][c] = r % 7 + c;
+                sum += matrix[r][c];
+            }
+        }
+        for (final MatrixFile.DataType type: MatrixFile.DataType.values()) {
+            final Path file = Files.createTempFile("matrix", ".bin");
+            try {
+                MatrixFile.write(file, matrix, type);
+                final MatrixFile stored = MatrixFile.open(file);
+                assertEquals(ROWS, stored.getRows());
+                assertEquals(COLS, stored.getCols());
+                assertEquals(type, stored.getType());
+                long time;
+                for (final int threads: new int[] { 1, 2, 3, 8, 16, 32 }) {
+                    time = System.currentTimeMillis();
+                    assertEquals(sum, new MultiThreadedMatrixFileSum(threads).sum(stored), EXPECTED_DELTA);
+                    assertEquals(sum, new MultiThreadedMatrixFileSum(threads, SMALL_SEGMENT).sum(stored),
+                            EXPECTED_DELTA);
+                    System.out.println("Tried " + type + " with " + threads + " thread: "
+                            + (System.currentTimeMillis() - time) + MSEC);
+                }
+            } finally {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Empty matrices have a header only.
+     *
+     * @throws IOException
+     *             if the temporary file cannot be written
+     */
+    @Test
+    public void testEmpty() throws IOException {
+        final Path file = Files.createTempFile("matrix", ".bin");
+        try {
+            MatrixFile.write(file, new double[0][], MatrixFile.DataType.FLOAT64);
+            assertEquals(MatrixFile.HEADER_BYTES, Files.size(file));
+            assertEquals(0, new MultiThreadedMatrixFileSum(4).sum(MatrixFile.open(file)), 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Files whose header does not match their size are rejected.
+     *
+     * @throws IOException
+     *             if the temporary file cannot be written
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncated() throws IOException {
+        final Path file = Files.createTempFile("matrix", ".bin");
+        try {
+            MatrixFile.write(file, new double[][] { { 1, 2 }, { 3, 4 } }, MatrixFile.DataType.FLOAT64);
+            final byte[] content = Files.readAllBytes(file);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                out.write(content, 0, content.length - 1);
+            }
+            MatrixFile.open(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * A jagged matrix is rejected before the file is touched, so that no
+     * truncated matrix is left behind.
+     *
+     * @throws IOException
+     *             if the temporary file cannot be written
+     */
+    @Test
+    public void testJagged() throws IOException {
+        final Path file = Files.createTempFile("matrix", ".bin");
+        try {
+            MatrixFile.write(file, new double[][] { { 1, 2 }, { 3, 4 } }, MatrixFile.DataType.FLOAT64);
+            try {
+                MatrixFile.write(file, new double[][] { { 1, 2 }, { 3 } }, MatrixFile.DataType.FLOAT64);
+                fail("A jagged matrix has been written");
+            } catch (IllegalArgumentException e) {
+                assertEquals(10, new MultiThreadedMatrixFileSum(2).sum(MatrixFile.open(file)), 0);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}